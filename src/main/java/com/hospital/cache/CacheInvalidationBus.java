@@ -0,0 +1,182 @@
+package com.hospital.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cross-node invalidation of the local (L1) cache tier over Redis pub/sub.
+ * Evictions made on this node are queued, coalesced per cache and published in one message
+ * per flush interval; other nodes evict the same keys from their L1. Redis (L2) itself is
+ * shared and already evicted by the writer.
+ * When the subscription is re-established after a connection loss, messages may have been
+ * missed, so every L1 cache on this node is flushed.
+ * While the Redis circuit breaker is open nothing is published; invalidations stay queued
+ * (coalescing into clears as they grow) until Redis is reachable again.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus implements MessageListener, SubscriptionListener {
+    
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final String channel;
+    private final int maxKeysPerCache;
+    private final String nodeId = UUID.randomUUID().toString();
+    
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> pendingKeys = new HashMap<>();
+    private final Set<String> pendingClears = new HashSet<>();
+    private final AtomicBoolean subscribedBefore = new AtomicBoolean();
+    
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate,
+                                ObjectMapper objectMapper,
+                                RedisCircuitBreaker circuitBreaker,
+                                @Value("${hospital.cache.invalidation.channel:hospital:cache:invalidation}") String channel,
+                                @Value("${hospital.cache.invalidation.max-keys-per-cache:1000}") int maxKeysPerCache) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.circuitBreaker = circuitBreaker;
+        this.channel = channel;
+        this.maxKeysPerCache = maxKeysPerCache;
+    }
+    
+    public String getChannel() {
+        return channel;
+    }
+    
+    /**
+     * Register a cache whose local tier is kept in sync by this bus
+     */
+    public void register(TwoTierCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+    
+    /**
+     * Queue a key invalidation for the other nodes
+     */
+    public synchronized void keyEvicted(String cacheName, String key) {
+        if (pendingClears.contains(cacheName)) {
+            return;
+        }
+        Set<String> keys = pendingKeys.computeIfAbsent(cacheName, name -> new HashSet<>());
+        keys.add(key);
+        // A burst of evictions is cheaper to send as one clear
+        if (keys.size() > maxKeysPerCache) {
+            cacheCleared(cacheName);
+        }
+    }
+    
+    /**
+     * Queue a full invalidation of a cache for the other nodes
+     */
+    public synchronized void cacheCleared(String cacheName) {
+        pendingKeys.remove(cacheName);
+        pendingClears.add(cacheName);
+    }
+    
+    /**
+     * Publish everything queued since the last flush as a single message
+     */
+    @Scheduled(fixedDelayString = "${hospital.cache.invalidation.flush-interval-ms:50}")
+    public void flush() {
+        InvalidationMessage message;
+        synchronized (this) {
+            if (pendingKeys.isEmpty() && pendingClears.isEmpty()) {
+                return;
+            }
+            if (!circuitBreaker.allowRequest()) {
+                return;
+            }
+            Map<String, List<String>> keys = new HashMap<>();
+            pendingKeys.forEach((cache, cacheKeys) -> keys.put(cache, new ArrayList<>(cacheKeys)));
+            message = new InvalidationMessage(nodeId, keys, new ArrayList<>(pendingClears));
+            pendingKeys.clear();
+            pendingClears.clear();
+        }
+        
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(message));
+            circuitBreaker.recordSuccess();
+        } catch (JsonProcessingException e) {
+            log.error("Could not encode cache invalidation message", e);
+        } catch (RuntimeException e) {
+            // Keep the invalidations for the next flush; L1 TTL bounds staleness meanwhile
+            log.warn("Could not publish cache invalidations, retrying on next flush: {}", e.getMessage());
+            circuitBreaker.recordFailure(e);
+            requeue(message);
+        }
+    }
+    
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        InvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), InvalidationMessage.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed cache invalidation message: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(invalidation.node())) {
+            return;
+        }
+        
+        if (invalidation.cleared() != null) {
+            invalidation.cleared().forEach(name -> {
+                TwoTierCache cache = caches.get(name);
+                if (cache != null) {
+                    cache.clearLocal();
+                }
+            });
+        }
+        if (invalidation.keys() != null) {
+            invalidation.keys().forEach((name, keys) -> {
+                TwoTierCache cache = caches.get(name);
+                if (cache != null) {
+                    keys.forEach(cache::evictLocal);
+                }
+            });
+        }
+        log.debug("Applied cache invalidations from node {}", invalidation.node());
+    }
+    
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        if (subscribedBefore.getAndSet(true)) {
+            log.warn("Re-subscribed to cache invalidation channel, flushing local caches");
+            caches.values().forEach(TwoTierCache::clearLocal);
+        } else {
+            log.info("Subscribed to cache invalidation channel as node {}", nodeId);
+        }
+    }
+    
+    private synchronized void requeue(InvalidationMessage message) {
+        message.cleared().forEach(this::cacheCleared);
+        message.keys().forEach((cache, keys) -> keys.forEach(key -> keyEvicted(cache, key)));
+    }
+    
+    /**
+     * Pub/sub payload: evicted keys per cache and fully cleared caches
+     */
+    record InvalidationMessage(String node, Map<String, List<String>> keys, List<String> cleared) {
+    }
+}
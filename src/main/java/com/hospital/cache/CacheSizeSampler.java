@@ -0,0 +1,55 @@
+package com.hospital.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically counts the entries of each cache in Redis with SCAN (never KEYS, which blocks
+ * the server) and hands the count to the cache's size metrics.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheSizeSampler {
+    
+    private final CacheManager cacheManager;
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisCircuitBreaker circuitBreaker;
+    
+    @Scheduled(initialDelayString = "${hospital.cache.metrics.remote-size-interval-ms:60000}",
+            fixedDelayString = "${hospital.cache.metrics.remote-size-interval-ms:60000}")
+    public void sampleRemoteSizes() {
+        if (!(cacheManager instanceof TwoTierCacheManager twoTierCacheManager)) {
+            return;
+        }
+        for (TwoTierCache cache : twoTierCacheManager.getTwoTierCaches()) {
+            if (!(cache.getRemote() instanceof RedisCache redisCache) || !circuitBreaker.allowRequest()) {
+                continue;
+            }
+            String prefix = redisCache.getCacheConfiguration().getKeyPrefixFor(cache.getName());
+            try (RedisConnection connection = connectionFactory.getConnection();
+                 Cursor<byte[]> keys = connection.keyCommands().scan(
+                         ScanOptions.scanOptions().match(prefix + "*").count(1000).build())) {
+                long count = 0;
+                while (keys.hasNext()) {
+                    keys.next();
+                    count++;
+                }
+                cache.setRemoteSize(count);
+                circuitBreaker.recordSuccess();
+            } catch (DataAccessException e) {
+                circuitBreaker.recordFailure(e);
+                log.debug("Could not count Redis entries of {}: {}", cache.getName(), e.getMessage());
+            }
+        }
+    }
+}
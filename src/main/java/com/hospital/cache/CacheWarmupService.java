@@ -0,0 +1,373 @@
+package com.hospital.cache;
+
+import com.hospital.dto.AppointmentDTO;
+import com.hospital.dto.DoctorDTO;
+import com.hospital.dto.MedicalRecordDTO;
+import com.hospital.dto.PatientDTO;
+import com.hospital.service.CacheManagerUtil;
+import com.hospital.service.DoctorService;
+import com.hospital.util.FieldSelection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Cache warm-up across restarts.
+ * On shutdown the hot set of each configured L1 cache is written to a local snapshot file;
+ * on startup, before the application reports ready, the file is memory-mapped and loaded
+ * back into L1. Entries are first checked against the database in one id/updated_at query per
+ * chunk, so anything changed or deleted while the node was down is dropped.
+ * Without a usable snapshot, a bounded page of doctors is preloaded instead.
+ * <p>
+ * The snapshot is taken when this bean's lifecycle phase stops, which comes after the web
+ * server's graceful shutdown has drained in-flight requests and before the server itself stops.
+ * (ContextClosedEvent would be too early: it is published before any lifecycle bean stops.)
+ * The file holds patient data, so it is only written to and read from a directory accessible
+ * to the application's user alone, and is created owner-only.
+ */
+@Slf4j
+@Component
+public class CacheWarmupService implements ApplicationRunner, SmartLifecycle {
+    
+    private static final int MAGIC = 0x484D5343;
+    private static final int VERSION = 1;
+    private static final int VALIDATION_CHUNK_SIZE = 1000;
+    
+    /** Stopped after the graceful shutdown phase and before the web server stop phase */
+    private static final int SNAPSHOT_PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 512;
+    
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    private static final Set<PosixFilePermission> OWNER_ONLY_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> OWNER_ONLY_FILE = PosixFilePermissions.fromString("rw-------");
+    
+    /** Table of each cached entity, and the DTO accessor matching its updated_at column */
+    private static final Map<String, String> TABLES = Map.of(
+            CacheManagerUtil.PATIENT_CACHE, "patients",
+            CacheManagerUtil.DOCTOR_CACHE, "doctors",
+            CacheManagerUtil.APPOINTMENT_CACHE, "appointments",
+            CacheManagerUtil.MEDICAL_RECORD_CACHE, "medical_records");
+    
+    private static final Map<String, Function<Object, LocalDateTime>> VERSIONS = Map.of(
+            CacheManagerUtil.PATIENT_CACHE, value -> ((PatientDTO) value).getUpdatedAt(),
+            CacheManagerUtil.DOCTOR_CACHE, value -> ((DoctorDTO) value).getUpdatedAt(),
+            CacheManagerUtil.APPOINTMENT_CACHE, value -> ((AppointmentDTO) value).getUpdatedAt(),
+            CacheManagerUtil.MEDICAL_RECORD_CACHE, value -> ((MedicalRecordDTO) value).getUpdatedAt());
+    
+    private final CacheManager cacheManager;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DoctorService doctorService;
+    private final boolean enabled;
+    private final Path snapshotFile;
+    private final List<String> cacheNames;
+    private final int maxEntriesPerCache;
+    private final Duration maxAge;
+    private final int preloadDoctors;
+    private volatile boolean running;
+    
+    public CacheWarmupService(CacheManager cacheManager,
+                              NamedParameterJdbcTemplate jdbcTemplate,
+                              DoctorService doctorService,
+                              @Value("${hospital.cache.warmup.enabled:true}") boolean enabled,
+                              @Value("${hospital.cache.warmup.snapshot-file:${user.home}/.hospital/cache-snapshot.bin}") String snapshotFile,
+                              @Value("${hospital.cache.warmup.caches:patients,doctors}") List<String> cacheNames,
+                              @Value("${hospital.cache.warmup.max-entries-per-cache:5000}") int maxEntriesPerCache,
+                              @Value("${hospital.cache.warmup.max-age-minutes:60}") long maxAgeMinutes,
+                              @Value("${hospital.cache.warmup.preload-doctors:500}") int preloadDoctors) {
+        this.cacheManager = cacheManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.doctorService = doctorService;
+        this.enabled = enabled;
+        this.snapshotFile = Path.of(snapshotFile).toAbsolutePath();
+        this.cacheNames = cacheNames;
+        this.maxEntriesPerCache = maxEntriesPerCache;
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.preloadDoctors = preloadDoctors;
+    }
+    
+    /**
+     * Load the snapshot (or the fallback preload) before the application accepts traffic
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (loadSnapshot()) {
+                return;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load cache snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+        preloadDoctors();
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+    }
+    
+    /**
+     * Runs once in-flight requests have drained, so the snapshot includes their writes
+     */
+    @Override
+    public void stop() {
+        saveSnapshot();
+        running = false;
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    @Override
+    public int getPhase() {
+        return SNAPSHOT_PHASE;
+    }
+    
+    /**
+     * Write the hot set of every configured cache to an owner-only file
+     */
+    public void saveSnapshot() {
+        if (!enabled) {
+            return;
+        }
+        Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        int written = 0;
+        try {
+            if (!privateDirectory(true)) {
+                return;
+            }
+            Files.deleteIfExists(tempFile);
+            if (POSIX) {
+                Files.createFile(tempFile, PosixFilePermissions.asFileAttribute(OWNER_ONLY_FILE));
+            } else {
+                Files.createFile(tempFile);
+            }
+        } catch (IOException e) {
+            log.warn("Could not create cache snapshot {}: {}", tempFile, e.getMessage());
+            return;
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(tempFile, StandardOpenOption.WRITE), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            for (String name : cacheNames) {
+                TwoTierCache cache = twoTierCache(name);
+                SerializationPair<Object> serializer = cache != null ? serializer(cache) : null;
+                if (serializer == null) {
+                    continue;
+                }
+                Map<String, Object> hottest = cache.hottestLocalEntries(maxEntriesPerCache);
+                writeString(out, name);
+                out.writeInt(hottest.size());
+                for (Map.Entry<String, Object> entry : hottest.entrySet()) {
+                    writeString(out, entry.getKey());
+                    writeBytes(out, serializer.write(entry.getValue()));
+                }
+                written += hottest.size();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write cache snapshot {}: {}", snapshotFile, e.getMessage());
+            return;
+        }
+        try {
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Wrote {} hot cache entries to {}", written, snapshotFile);
+        } catch (IOException e) {
+            log.warn("Could not replace cache snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+    
+    private boolean loadSnapshot() throws IOException {
+        if (!Files.isReadable(snapshotFile)) {
+            log.info("No cache snapshot at {}", snapshotFile);
+            return false;
+        }
+        if (!privateDirectory(false)) {
+            return false;
+        }
+        
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                log.warn("Ignoring cache snapshot {} with unknown format", snapshotFile);
+                return false;
+            }
+            long createdAt = buffer.getLong();
+            if (System.currentTimeMillis() - createdAt > maxAge.toMillis()) {
+                log.info("Ignoring cache snapshot {} older than {}", snapshotFile, maxAge);
+                return false;
+            }
+            
+            int loaded = 0;
+            while (buffer.hasRemaining()) {
+                String name = readString(buffer);
+                int count = buffer.getInt();
+                TwoTierCache cache = twoTierCache(name);
+                SerializationPair<Object> serializer = cache != null ? serializer(cache) : null;
+                
+                Map<String, Object> entries = new LinkedHashMap<>();
+                for (int i = 0; i < count; i++) {
+                    String key = readString(buffer);
+                    int length = buffer.getInt();
+                    ByteBuffer value = buffer.slice(buffer.position(), length);
+                    buffer.position(buffer.position() + length);
+                    if (serializer != null) {
+                        entries.put(key, serializer.read(value));
+                    }
+                }
+                if (serializer != null && TABLES.containsKey(name)) {
+                    Map<String, Object> current = dropStale(name, entries);
+                    current.forEach(cache::putLocalOnly);
+                    loaded += current.size();
+                    log.info("Warmed {} with {} of {} snapshot entries", name, current.size(), entries.size());
+                }
+            }
+            log.info("Loaded {} cache entries from snapshot {}", loaded, snapshotFile);
+            return true;
+        }
+    }
+    
+    /**
+     * Keep only the entries whose row still exists with the same updated_at
+     */
+    private Map<String, Object> dropStale(String cacheName, Map<String, Object> entries) {
+        Function<Object, LocalDateTime> version = VERSIONS.get(cacheName);
+        String sql = "SELECT id, updated_at FROM " + TABLES.get(cacheName) + " WHERE id IN (:ids)";
+        
+        Map<String, LocalDateTime> currentVersions = new HashMap<>();
+        List<Long> ids = entries.keySet().stream().map(Long::valueOf).toList();
+        for (int from = 0; from < ids.size(); from += VALIDATION_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + VALIDATION_CHUNK_SIZE, ids.size()));
+            jdbcTemplate.query(sql, Map.of("ids", chunk), rs -> {
+                currentVersions.put(String.valueOf(rs.getLong(1)),
+                        rs.getTimestamp(2) != null ? rs.getTimestamp(2).toLocalDateTime() : null);
+            });
+        }
+        
+        Map<String, Object> current = new LinkedHashMap<>();
+        entries.forEach((key, value) -> {
+            if (currentVersions.containsKey(key) && Objects.equals(currentVersions.get(key), version.apply(value))) {
+                current.put(key, value);
+            }
+        });
+        return current;
+    }
+    
+    /**
+     * Whether the snapshot directory is owned by this process's user and closed to everyone
+     * else (created that way if missing and {@code create} is set). Other users could otherwise
+     * read the patient data in the snapshot, or plant a snapshot of their own.
+     */
+    private boolean privateDirectory(boolean create) throws IOException {
+        Path directory = snapshotFile.getParent();
+        if (Files.notExists(directory) && create) {
+            if (POSIX) {
+                Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIRECTORY));
+            } else {
+                Files.createDirectories(directory);
+            }
+        }
+        if (!POSIX) {
+            return true;
+        }
+        String owner = Files.getOwner(directory).getName();
+        Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory);
+        if (!owner.equals(System.getProperty("user.name")) || !OWNER_ONLY_DIRECTORY.containsAll(permissions)) {
+            log.warn("Not using cache snapshot {}: directory must be owned by {} with mode 700 (is {} {})",
+                    snapshotFile, System.getProperty("user.name"), owner, PosixFilePermissions.toString(permissions));
+            return false;
+        }
+        return true;
+    }
+    
+    private void preloadDoctors() {
+        TwoTierCache cache = twoTierCache(CacheManagerUtil.DOCTOR_CACHE);
+        if (cache == null || preloadDoctors <= 0) {
+            return;
+        }
+        List<DoctorDTO> doctors;
+        try {
+            doctors = doctorService.getAllDoctors(PageRequest.of(0, preloadDoctors, Sort.by("id")), FieldSelection.all()).getContent();
+        } catch (DataAccessException e) {
+            log.warn("Could not preload doctors: {}", e.getMessage());
+            return;
+        }
+        doctors.forEach(doctor -> cache.putLocalOnly(String.valueOf(doctor.getId()), doctor));
+        log.info("Preloaded {} doctors into the local cache", doctors.size());
+    }
+    
+    private TwoTierCache twoTierCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        return cache instanceof TwoTierCache twoTierCache ? twoTierCache : null;
+    }
+    
+    private static SerializationPair<Object> serializer(TwoTierCache cache) {
+        return cache.getRemote() instanceof RedisCache redisCache
+                ? redisCache.getCacheConfiguration().getValueSerializationPair()
+                : null;
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static void writeBytes(DataOutputStream out, ByteBuffer value) throws IOException {
+        byte[] bytes = new byte[value.remaining()];
+        value.get(bytes);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,112 @@
+package com.hospital.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Circuit breaker guarding every call to Redis from the cache layer.
+ * After a run of consecutive failures the circuit opens and callers skip Redis immediately
+ * (the cache works from the local tier only). Once the open period has passed a single probe
+ * call is let through; if it succeeds the circuit closes and recovery listeners re-sync Redis.
+ */
+@Slf4j
+@Component
+public class RedisCircuitBreaker {
+    
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+    
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int maxDirtyKeys;
+    private final List<Runnable> recoveryListeners = new CopyOnWriteArrayList<>();
+    
+    private volatile State state = State.CLOSED;
+    private volatile int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+    
+    public RedisCircuitBreaker(@Value("${hospital.cache.circuit-breaker.failure-threshold:3}") int failureThreshold,
+                               @Value("${hospital.cache.circuit-breaker.open-seconds:10}") long openSeconds,
+                               @Value("${hospital.cache.circuit-breaker.max-dirty-keys:10000}") int maxDirtyKeys) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = Duration.ofSeconds(openSeconds).toNanos();
+        this.maxDirtyKeys = maxDirtyKeys;
+    }
+    
+    public State getState() {
+        return state;
+    }
+    
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+    
+    /**
+     * Evictions a cache remembers during an outage before it falls back to a full clear on recovery
+     */
+    public int getMaxDirtyKeys() {
+        return maxDirtyKeys;
+    }
+    
+    /**
+     * Register an action to run when Redis becomes reachable again
+     */
+    public void onRecovery(Runnable listener) {
+        recoveryListeners.add(listener);
+    }
+    
+    /**
+     * Whether a Redis call may be attempted now
+     */
+    public boolean allowRequest() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+                state = State.HALF_OPEN;
+                probeInFlight = false;
+            }
+            if (state == State.HALF_OPEN && !probeInFlight) {
+                probeInFlight = true;
+                return true;
+            }
+            return state == State.CLOSED;
+        }
+    }
+    
+    public void recordSuccess() {
+        if (state == State.CLOSED && consecutiveFailures == 0) {
+            return;
+        }
+        boolean recovered;
+        synchronized (this) {
+            recovered = state != State.CLOSED;
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            probeInFlight = false;
+        }
+        if (recovered) {
+            log.info("Redis is reachable again, closing cache circuit breaker");
+            recoveryListeners.forEach(Runnable::run);
+        }
+    }
+    
+    public synchronized void recordFailure(RuntimeException e) {
+        probeInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            log.warn("Redis unavailable ({}), serving caches from the local tier for the next {}s",
+                    e.getMessage(), Duration.ofNanos(openNanos).toSeconds());
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.hospital.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact Redis value serializer for one cached DTO type.
+ * Values are encoded as Smile (binary JSON) without type metadata, since every cache holds
+ * a single type; payloads above the compression threshold are deflated.
+ * Each value starts with a one-byte header telling whether the body is compressed.
+ * Jackson annotations are ignored so REST formatting (date patterns, filters) never
+ * affects what is cached, and unknown properties are skipped so entries written by an
+ * older or newer DTO version still decode.
+ */
+public class SmileRedisSerializer<T> implements RedisSerializer<T> {
+    
+    private static final byte PLAIN = 0;
+    private static final byte DEFLATED = 1;
+    
+    private static final ObjectMapper MAPPER = SmileMapper.builder(new SmileFactory())
+            .addModule(new JavaTimeModule())
+            .disable(MapperFeature.USE_ANNOTATIONS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    
+    private final Class<T> type;
+    private final int compressionThreshold;
+    
+    /**
+     * @param compressionThreshold payload size in bytes above which values are deflated,
+     *                             or a negative value to never compress
+     */
+    public SmileRedisSerializer(Class<T> type, int compressionThreshold) {
+        this.type = type;
+        this.compressionThreshold = compressionThreshold;
+    }
+    
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        byte[] body;
+        try {
+            body = MAPPER.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write " + type.getSimpleName() + " as Smile", e);
+        }
+        
+        if (compressionThreshold >= 0 && body.length > compressionThreshold) {
+            byte[] compressed = deflate(body);
+            if (compressed.length < body.length) {
+                return withHeader(DEFLATED, compressed);
+            }
+        }
+        return withHeader(PLAIN, body);
+    }
+    
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return switch (bytes[0]) {
+                case PLAIN -> MAPPER.readValue(bytes, 1, bytes.length - 1, type);
+                case DEFLATED -> MAPPER.readValue(inflate(bytes), type);
+                default -> throw new SerializationException("Unknown cache value header: " + bytes[0]);
+            };
+        } catch (IOException | DataFormatException e) {
+            throw new SerializationException("Could not read " + type.getSimpleName() + " from Smile", e);
+        }
+    }
+    
+    @Override
+    public Class<?> getTargetType() {
+        return type;
+    }
+    
+    private static byte[] withHeader(byte header, byte[] body) {
+        byte[] value = new byte[body.length + 1];
+        value[0] = header;
+        System.arraycopy(body, 0, value, 1, body.length);
+        return value;
+    }
+    
+    private static byte[] deflate(byte[] body) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    private static byte[] inflate(byte[] value) throws DataFormatException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(value, 1, value.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(value.length * 3);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated compressed cache value");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,677 @@
+package com.hospital.cache;
+
+import com.hospital.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.CacheOperationInvoker;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache with a bounded in-process tier (L1) in front of the shared Redis tier (L2).
+ * Reads check L1 first and promote L2 hits into L1; writes and evictions go to both,
+ * L2 first so another node cannot re-populate a stale value from it.
+ * Evictions are also announced on the invalidation bus so other nodes drop their L1 copy;
+ * L1 keys are held in their string form, the same form the bus carries.
+ * Concurrent misses for the same key share a single load (single flight), and an L1 hit
+ * older than the refresh-ahead age hands one reload of the key to the refresh executor and
+ * still returns the cached value, so hot keys are renewed before they expire without any
+ * request waiting on the source. A caller waiting on
+ * another's load gives up after the load wait timeout instead of blocking indefinitely.
+ * A load that fails with {@link ResourceNotFoundException} is remembered in a short-lived
+ * node-local negative cache, so repeated lookups of a missing id skip the database;
+ * evicting the key (as creates do) drops the negative entry too.
+ * Every Redis call goes through the shared circuit breaker: while Redis is failing the cache
+ * runs on L1 only, evictions that could not reach Redis are remembered and replayed once the
+ * breaker closes, so Redis never serves a value that was invalidated during the outage.
+ * Metrics per cache: hits and misses per tier, load latency percentiles, evictions, entry
+ * counts and estimated bytes per tier. Bytes are estimated from the serialized size of a
+ * sample of written values; the Redis entry count is refreshed by {@link CacheSizeSampler}.
+ */
+@Slf4j
+public class TwoTierCache implements Cache {
+    
+    private final String name;
+    private final Cache local;
+    private final Cache remote;
+    private final Cache negative;
+    private final CacheInvalidationBus invalidationBus;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final long refreshAheadNanos;
+    private final Executor refreshExecutor;
+    private final long loadWaitTimeoutNanos;
+    
+    private final Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+    private volatile boolean dirtyClear;
+    
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter sourceLoads;
+    private final Counter coalescedLoads;
+    private final Counter refreshAheadLoads;
+    private final Counter negativeHits;
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter explicitEvictions;
+    private final Timer loadTimer;
+    private final AtomicLong writes = new AtomicLong();
+    private volatile double averageEntryBytes;
+    private volatile long remoteSize = -1;
+    
+    public TwoTierCache(String name, Cache local, Cache remote) {
+        this(name, local, remote, null, null, new RedisCircuitBreaker(3, 10, 10_000), Duration.ZERO,
+                Runnable::run, Duration.ofSeconds(10), new SimpleMeterRegistry());
+    }
+    
+    /**
+     * @param negative     node-local cache of not-found keys, or null to disable negative caching
+     * @param refreshAhead    L1 entry age after which a hit triggers a reload, or zero to disable
+     * @param refreshExecutor runs refresh-ahead reloads; should be bounded and reject when full
+     * @param loadWaitTimeout how long a caller waits for a concurrent load of the same key
+     */
+    public TwoTierCache(String name, Cache local, Cache remote, Cache negative,
+                        CacheInvalidationBus invalidationBus, RedisCircuitBreaker circuitBreaker,
+                        Duration refreshAhead, Executor refreshExecutor, Duration loadWaitTimeout,
+                        MeterRegistry meterRegistry) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.negative = negative;
+        this.invalidationBus = invalidationBus;
+        this.circuitBreaker = circuitBreaker;
+        this.refreshAheadNanos = refreshAhead.toNanos();
+        this.refreshExecutor = refreshExecutor;
+        this.loadWaitTimeoutNanos = loadWaitTimeout.toNanos();
+        this.sourceLoads = loadCounter(meterRegistry, "source");
+        this.coalescedLoads = loadCounter(meterRegistry, "coalesced");
+        this.refreshAheadLoads = loadCounter(meterRegistry, "refresh-ahead");
+        this.negativeHits = loadCounter(meterRegistry, "negative");
+        this.localHits = getCounter(meterRegistry, "local", "hit");
+        this.localMisses = getCounter(meterRegistry, "local", "miss");
+        this.remoteHits = getCounter(meterRegistry, "remote", "hit");
+        this.remoteMisses = getCounter(meterRegistry, "remote", "miss");
+        this.explicitEvictions = Counter.builder("hospital.cache.evictions")
+                .description("Entries removed from the cache, explicitly or by the L1 size/expiry policy")
+                .tag("cache", name)
+                .tag("cause", "explicit")
+                .register(meterRegistry);
+        this.loadTimer = Timer.builder("hospital.cache.load.duration")
+                .description("Time spent loading values from the source on a cache miss")
+                .tag("cache", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        registerSizeMeters(meterRegistry);
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+    
+    public Cache getLocal() {
+        return local;
+    }
+    
+    public Cache getRemote() {
+        return remote;
+    }
+    
+    @Override
+    public ValueWrapper get(Object key) {
+        LocalEntry entry = getLocalEntry(localKey(key));
+        if (entry != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(entry.value());
+        }
+        localMisses.increment();
+        ValueWrapper value = getRemote(key);
+        if (value != null) {
+            putLocal(localKey(key), value.get());
+        }
+        return value;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null || value.get() == null) {
+            return null;
+        }
+        if (type != null && !type.isInstance(value.get())) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value.get());
+        }
+        return (T) value.get();
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        LocalEntry entry = getLocalEntry(localKey);
+        if (entry != null) {
+            localHits.increment();
+            if (refreshAheadNanos > 0 && System.nanoTime() - entry.writtenAt() > refreshAheadNanos) {
+                refreshAhead(key, localKey, valueLoader);
+            }
+            return (T) entry.value();
+        }
+        localMisses.increment();
+        
+        ValueWrapper notFound = negative != null ? negative.get(localKey) : null;
+        if (notFound != null) {
+            negativeHits.increment();
+            throw new ValueRetrievalException(key, valueLoader, new ResourceNotFoundException((String) notFound.get()));
+        }
+        
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(localKey, flight);
+        if (existing != null) {
+            coalescedLoads.increment();
+            return (T) await(key, valueLoader, existing);
+        }
+        
+        try {
+            Object value;
+            ValueWrapper remoteValue = getRemote(key);
+            if (remoteValue != null) {
+                value = remoteValue.get();
+                putLocal(localKey, value);
+            } else {
+                value = load(key, valueLoader);
+            }
+            flight.complete(value);
+            return (T) value;
+        } catch (Throwable e) {
+            // Whatever the failure, waiters must not be left on a future nobody completes
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(localKey, flight);
+        }
+    }
+    
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        runRemote(() -> remote.put(key, value));
+        putLocal(localKey(key), value);
+        sampleEntrySize(value);
+    }
+    
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        if (value == null) {
+            return get(key);
+        }
+        ValueWrapper existing = callRemote(() -> remote.putIfAbsent(key, value), key);
+        Object current = existing != null ? existing.get() : value;
+        putLocal(localKey(key), current);
+        return existing != null ? new SimpleValueWrapper(current) : null;
+    }
+    
+    @Override
+    public void evict(Object key) {
+        if (!runRemote(() -> remote.evict(key))) {
+            markDirty(localKey(key));
+        }
+        local.evict(localKey(key));
+        evictNegative(localKey(key));
+        explicitEvictions.increment();
+        announceEvict(key);
+    }
+    
+    @Override
+    public boolean evictIfPresent(Object key) {
+        Boolean remoteEvicted = callRemote(() -> remote.evictIfPresent(key));
+        if (remoteEvicted == null) {
+            markDirty(localKey(key));
+        }
+        boolean localEvicted = local.evictIfPresent(localKey(key));
+        evictNegative(localKey(key));
+        explicitEvictions.increment();
+        announceEvict(key);
+        return Boolean.TRUE.equals(remoteEvicted) || localEvicted;
+    }
+    
+    @Override
+    public void clear() {
+        if (!runRemote(remote::clear)) {
+            dirtyClear = true;
+        }
+        clearLocal();
+        announceClear();
+    }
+    
+    @Override
+    public boolean invalidate() {
+        Boolean remoteInvalidated = callRemote(remote::invalidate);
+        if (remoteInvalidated == null) {
+            dirtyClear = true;
+        }
+        boolean localInvalidated = local.invalidate();
+        if (negative != null) {
+            negative.invalidate();
+        }
+        announceClear();
+        return Boolean.TRUE.equals(remoteInvalidated) || localInvalidated;
+    }
+    
+    /**
+     * Drop a key from this node's L1 only (invalidation from another node)
+     */
+    public void evictLocal(String key) {
+        local.evict(key);
+        evictNegative(key);
+    }
+    
+    /**
+     * Drop every entry from this node's L1 only
+     */
+    public void clearLocal() {
+        local.clear();
+        if (negative != null) {
+            negative.clear();
+        }
+    }
+    
+    private Object load(Object key, Callable<?> valueLoader) {
+        Object value;
+        long start = System.nanoTime();
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            sourceLoads.increment();
+            Throwable original = e instanceof CacheOperationInvoker.ThrowableWrapper wrapper
+                    ? wrapper.getOriginal() : e;
+            if (negative != null && original instanceof ResourceNotFoundException) {
+                negative.put(localKey(key), original.getMessage());
+            }
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        sourceLoads.increment();
+        put(key, value);
+        return value;
+    }
+    
+    private void refreshAhead(Object key, String localKey, Callable<?> valueLoader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(localKey, flight) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> refresh(key, localKey, valueLoader, flight));
+        } catch (RejectedExecutionException e) {
+            // Refresh pool saturated: keep serving the cached value, a later hit tries again
+            inFlight.remove(localKey, flight);
+            flight.completeExceptionally(new ValueRetrievalException(key, valueLoader, e));
+            log.debug("Refresh-ahead of {}::{} skipped, refresh executor is full", name, key);
+        }
+    }
+    
+    private void refresh(Object key, String localKey, Callable<?> valueLoader, CompletableFuture<Object> flight) {
+        try {
+            flight.complete(load(key, valueLoader));
+            refreshAheadLoads.increment();
+        } catch (RuntimeException e) {
+            // The cached value is still valid until it expires, serve it
+            flight.completeExceptionally(e);
+            log.debug("Refresh-ahead of {}::{} failed: {}", name, key, e.getMessage());
+        } catch (Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(localKey, flight);
+        }
+    }
+    
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> flight) {
+        try {
+            return flight.get(loadWaitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ValueRetrievalException retrievalException) {
+                // Surface the loader's own failure (e.g. not found) to every waiting caller
+                throw new ValueRetrievalException(key, valueLoader, retrievalException.getCause());
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ValueRetrievalException(key, valueLoader, cause);
+        } catch (TimeoutException e) {
+            log.warn("Gave up waiting for the concurrent load of {}::{} after {} ms", name, key,
+                    TimeUnit.NANOSECONDS.toMillis(loadWaitTimeoutNanos));
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+    
+    /**
+     * Replay evictions that could not reach Redis while it was unavailable
+     */
+    public void resync() {
+        if (dirtyClear) {
+            if (runRemote(remote::clear)) {
+                dirtyClear = false;
+                dirtyKeys.clear();
+                log.info("Re-synced {}: cleared Redis after outage", name);
+            }
+            return;
+        }
+        int replayed = 0;
+        for (String key : dirtyKeys) {
+            if (!runRemote(() -> remote.evict(key))) {
+                return;
+            }
+            dirtyKeys.remove(key);
+            replayed++;
+        }
+        if (replayed > 0) {
+            log.info("Re-synced {}: replayed {} evictions to Redis after outage", name, replayed);
+        }
+    }
+    
+    /**
+     * Number of evictions waiting to be replayed to Redis (-1 when a full clear is pending)
+     */
+    public int getPendingResyncCount() {
+        return dirtyClear ? -1 : dirtyKeys.size();
+    }
+    
+    /**
+     * The L1 values present for the given keys, by key. Neither Redis nor the source is consulted,
+     * so a bulk lookup can send all remaining keys to one query instead of one Redis call each.
+     */
+    public Map<Object, Object> getAllLocal(Collection<?> keys) {
+        Map<Object, Object> found = new HashMap<>();
+        for (Object key : keys) {
+            LocalEntry entry = getLocalEntry(localKey(key));
+            if (entry != null) {
+                localHits.increment();
+                found.put(key, entry.value());
+            } else {
+                localMisses.increment();
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * Put a value into this node's L1 only, e.g. when warming up from a snapshot
+     */
+    public void putLocalOnly(String key, Object value) {
+        if (value != null) {
+            putLocal(key, value);
+        }
+    }
+    
+    /**
+     * The L1 entries least likely to be evicted (the hot set), hottest first
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> hottestLocalEntries(int limit) {
+        Map<String, Object> hottest = new LinkedHashMap<>();
+        if (local.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) caffeine).policy().eviction()
+                    .map(eviction -> eviction.hottest(limit))
+                    .orElse(Map.of())
+                    .forEach((key, entry) -> hottest.put(key.toString(), ((LocalEntry) entry).value()));
+        }
+        return hottest;
+    }
+    
+    /**
+     * Point-in-time statistics of this cache for the admin view
+     */
+    public Statistics statistics() {
+        HistogramSnapshot loads = loadTimer.takeSnapshot();
+        Map<String, Double> loadPercentilesMs = new LinkedHashMap<>();
+        for (ValueAtPercentile percentile : loads.percentileValues()) {
+            loadPercentilesMs.put("p" + Math.round(percentile.percentile() * 100),
+                    percentile.value(TimeUnit.MILLISECONDS));
+        }
+        double hits = localHits.count() + remoteHits.count();
+        double requests = localHits.count() + localMisses.count();
+        return new Statistics(name,
+                (long) localHits.count(), (long) localMisses.count(),
+                (long) remoteHits.count(), (long) remoteMisses.count(),
+                requests > 0 ? hits / requests : 0,
+                loads.count(), loads.mean(TimeUnit.MILLISECONDS), loadPercentilesMs,
+                localSize(), remoteSize, estimatedBytes(localSize()), estimatedBytes(remoteSize));
+    }
+    
+    /**
+     * Record the number of entries in the Redis tier, as last counted by the size sampler
+     */
+    public void setRemoteSize(long remoteSize) {
+        this.remoteSize = remoteSize;
+    }
+    
+    private ValueWrapper getRemote(Object key) {
+        ValueWrapper value = callRemote(() -> remote.get(key), key);
+        (value != null ? remoteHits : remoteMisses).increment();
+        return value;
+    }
+    
+    /**
+     * Serialize one in every 32 written values to keep a running average of the entry size
+     */
+    private void sampleEntrySize(Object value) {
+        if ((writes.incrementAndGet() & 31) != 1 || !(remote instanceof RedisCache redisCache)) {
+            return;
+        }
+        try {
+            int bytes = redisCache.getCacheConfiguration().getValueSerializationPair().write(value).remaining();
+            double average = averageEntryBytes;
+            averageEntryBytes = average == 0 ? bytes : average * 0.9 + bytes * 0.1;
+        } catch (RuntimeException e) {
+            log.debug("Could not sample entry size of {}: {}", name, e.getMessage());
+        }
+    }
+    
+    private long localSize() {
+        Object nativeCache = local.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            return caffeine.estimatedSize();
+        }
+        return nativeCache instanceof ConcurrentMap<?, ?> map ? map.size() : -1;
+    }
+    
+    private long estimatedBytes(long entries) {
+        return entries < 0 ? -1 : Math.round(entries * averageEntryBytes);
+    }
+    
+    private void registerSizeMeters(MeterRegistry meterRegistry) {
+        Gauge.builder("hospital.cache.size", this, TwoTierCache::localSize)
+                .description("Number of entries per tier (-1 when not yet known)")
+                .tag("cache", name)
+                .tag("tier", "local")
+                .register(meterRegistry);
+        Gauge.builder("hospital.cache.size", this, cache -> cache.remoteSize)
+                .description("Number of entries per tier (-1 when not yet known)")
+                .tag("cache", name)
+                .tag("tier", "remote")
+                .register(meterRegistry);
+        Gauge.builder("hospital.cache.size.bytes", this, cache -> cache.estimatedBytes(cache.localSize()))
+                .description("Estimated serialized size of the entries per tier")
+                .tag("cache", name)
+                .tag("tier", "local")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("hospital.cache.size.bytes", this, cache -> cache.estimatedBytes(cache.remoteSize))
+                .description("Estimated serialized size of the entries per tier")
+                .tag("cache", name)
+                .tag("tier", "remote")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        if (local.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            FunctionCounter.builder("hospital.cache.evictions", caffeine, c -> c.stats().evictionCount())
+                    .description("Entries removed from the cache, explicitly or by the L1 size/expiry policy")
+                    .tag("cache", name)
+                    .tag("cause", "policy")
+                    .register(meterRegistry);
+        }
+    }
+    
+    /**
+     * Call Redis through the circuit breaker; null when skipped or failed
+     */
+    private <R> R callRemote(Supplier<R> call) {
+        return callRemote(call, null);
+    }
+    
+    /**
+     * Call Redis through the circuit breaker; null when skipped or failed. Every outcome is
+     * reported to the breaker, so a half-open probe is always released. A value that cannot be
+     * (de)serialized means Redis itself answered: it counts as a success, is treated as a miss,
+     * and the unreadable entry under {@code key} (if given) is evicted.
+     */
+    private <R> R callRemote(Supplier<R> call, Object key) {
+        if (!circuitBreaker.allowRequest()) {
+            return null;
+        }
+        try {
+            R result = call.get();
+            circuitBreaker.recordSuccess();
+            return result;
+        } catch (SerializationException e) {
+            circuitBreaker.recordSuccess();
+            log.warn("Unreadable Redis entry {}::{}, treating as a miss: {}", name, key, e.getMessage());
+            if (key != null) {
+                runRemote(() -> remote.evict(key));
+            }
+            return null;
+        } catch (RuntimeException e) {
+            circuitBreaker.recordFailure(e);
+            if (!(e instanceof DataAccessException)) {
+                log.warn("Unexpected Redis error on {}: {}", name, e.toString());
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * Run a Redis write through the circuit breaker; false when skipped or failed
+     */
+    private boolean runRemote(Runnable call) {
+        return callRemote(() -> {
+            call.run();
+            return Boolean.TRUE;
+        }) != null;
+    }
+    
+    private void markDirty(String localKey) {
+        dirtyKeys.add(localKey);
+        if (dirtyKeys.size() > circuitBreaker.getMaxDirtyKeys()) {
+            dirtyClear = true;
+        }
+    }
+    
+    private void evictNegative(String localKey) {
+        if (negative != null) {
+            negative.evict(localKey);
+        }
+    }
+    
+    private LocalEntry getLocalEntry(String localKey) {
+        ValueWrapper wrapper = local.get(localKey);
+        return wrapper != null ? (LocalEntry) wrapper.get() : null;
+    }
+    
+    private void putLocal(String localKey, Object value) {
+        local.put(localKey, new LocalEntry(value, System.nanoTime()));
+    }
+    
+    private Counter loadCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("hospital.cache.loads")
+                .description("Cache loads by outcome: source (loaded from the database), "
+                        + "coalesced (joined an in-flight load), refresh-ahead (renewed before expiry), "
+                        + "negative (answered not-found from the negative cache)")
+                .tag("cache", name)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+    
+    private Counter getCounter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("hospital.cache.gets")
+                .description("Cache lookups per tier and result")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+    
+    private static String localKey(Object key) {
+        return key.toString();
+    }
+    
+    private void announceEvict(Object key) {
+        if (invalidationBus != null) {
+            invalidationBus.keyEvicted(name, localKey(key));
+        }
+    }
+    
+    private void announceClear() {
+        if (invalidationBus != null) {
+            invalidationBus.cacheCleared(name);
+        }
+    }
+    
+    /**
+     * L1 value with its write time, used to decide on refresh-ahead
+     */
+    record LocalEntry(Object value, long writtenAt) {
+    }
+    
+    /**
+     * Cache statistics; sizes and bytes are -1 when not known
+     */
+    public record Statistics(String name,
+                             long localHits, long localMisses,
+                             long remoteHits, long remoteMisses,
+                             double hitRatio,
+                             long loads, double loadMeanMs, Map<String, Double> loadPercentilesMs,
+                             long localSize, long remoteSize,
+                             long localBytes, long remoteBytes) {
+    }
+}
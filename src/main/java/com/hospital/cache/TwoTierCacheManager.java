@@ -0,0 +1,102 @@
+package com.hospital.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Cache manager building a {@link TwoTierCache} per cache name: a size-bounded Caffeine
+ * cache with a short TTL over the Redis cache of the same name, plus a smaller
+ * node-local cache of not-found keys.
+ * Caches are transaction-aware, so puts and evictions made inside a transaction
+ * only reach the caches after it commits. Each cache is registered with the invalidation bus
+ * so evictions on other nodes reach its local tier, and with the Redis circuit breaker so
+ * evictions missed during an outage are replayed when Redis comes back.
+ */
+public class TwoTierCacheManager extends AbstractTransactionSupportingCacheManager {
+    
+    private final RedisCacheManager redisCacheManager;
+    private final Collection<String> cacheNames;
+    private final long localMaxSize;
+    private final Duration localTtl;
+    private final Duration refreshAhead;
+    private final Executor refreshExecutor;
+    private final Duration loadWaitTimeout;
+    private final long negativeMaxSize;
+    private final Duration negativeTtl;
+    private final CacheInvalidationBus invalidationBus;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    
+    public TwoTierCacheManager(RedisCacheManager redisCacheManager, Collection<String> cacheNames,
+                               long localMaxSize, Duration localTtl, Duration refreshAhead,
+                               Executor refreshExecutor, Duration loadWaitTimeout,
+                               long negativeMaxSize, Duration negativeTtl,
+                               CacheInvalidationBus invalidationBus, RedisCircuitBreaker circuitBreaker,
+                               MeterRegistry meterRegistry) {
+        this.redisCacheManager = redisCacheManager;
+        this.cacheNames = List.copyOf(cacheNames);
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        this.refreshAhead = refreshAhead;
+        this.refreshExecutor = refreshExecutor;
+        this.loadWaitTimeout = loadWaitTimeout;
+        this.negativeMaxSize = negativeMaxSize;
+        this.negativeTtl = negativeTtl;
+        this.invalidationBus = invalidationBus;
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+        setTransactionAware(true);
+    }
+    
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return cacheNames.stream().map(this::createCache).toList();
+    }
+    
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+    
+    /**
+     * The caches built by this manager, without their transaction-aware decorator
+     */
+    public List<TwoTierCache> getTwoTierCaches() {
+        return getCacheNames().stream()
+                .map(this::lookupCache)
+                .map(cache -> cache instanceof TransactionAwareCacheDecorator decorator
+                        ? decorator.getTargetCache() : cache)
+                .filter(TwoTierCache.class::isInstance)
+                .map(TwoTierCache.class::cast)
+                .toList();
+    }
+    
+    private Cache createCache(String name) {
+        Cache remote = redisCacheManager.getCache(name);
+        CaffeineCache local = new CaffeineCache(name, Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build(), false);
+        CaffeineCache negative = negativeTtl.isZero() ? null : new CaffeineCache(name + ":not-found",
+                Caffeine.newBuilder()
+                        .maximumSize(negativeMaxSize)
+                        .expireAfterWrite(negativeTtl)
+                        .build(), false);
+        TwoTierCache cache = new TwoTierCache(name, local, remote, negative, invalidationBus,
+                circuitBreaker, refreshAhead, refreshExecutor, loadWaitTimeout, meterRegistry);
+        invalidationBus.register(cache);
+        circuitBreaker.onRecovery(cache::resync);
+        return cache;
+    }
+}
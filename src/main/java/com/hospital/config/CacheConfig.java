@@ -1,12 +1,42 @@
 package com.hospital.config;
 
+import com.hospital.cache.CacheInvalidationBus;
+import com.hospital.cache.RedisCircuitBreaker;
+import com.hospital.cache.SmileRedisSerializer;
+import com.hospital.cache.TwoTierCacheManager;
+import com.hospital.dto.AppointmentDTO;
+import com.hospital.dto.DoctorDTO;
+import com.hospital.dto.MedicalRecordDTO;
+import com.hospital.dto.PatientDTO;
+import com.hospital.service.CacheManagerUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Redis Cache Configuration
@@ -15,7 +45,54 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 @Slf4j
 @Configuration
 @EnableCaching
-public class CacheConfig {
+public class CacheConfig implements CachingConfigurer {
+    
+    /** Value type held by each cache */
+    private static final Map<String, Class<?>> CACHED_TYPES = Map.of(
+            CacheManagerUtil.PATIENT_CACHE, PatientDTO.class,
+            CacheManagerUtil.DOCTOR_CACHE, DoctorDTO.class,
+            CacheManagerUtil.APPOINTMENT_CACHE, AppointmentDTO.class,
+            CacheManagerUtil.MEDICAL_RECORD_CACHE, MedicalRecordDTO.class);
+    
+    @Value("${hospital.cache.local.max-size:10000}")
+    private long localMaxSize;
+    
+    @Value("${hospital.cache.local.ttl-seconds:60}")
+    private long localTtlSeconds;
+    
+    /** Fraction of the L1 TTL after which a hit reloads the key ahead of expiry (0 disables) */
+    @Value("${hospital.cache.local.refresh-ahead-ratio:0.8}")
+    private double refreshAheadRatio;
+    
+    /** Threads running refresh-ahead reloads; hits beyond their queue keep the cached value */
+    @Value("${hospital.cache.local.refresh-threads:2}")
+    private int refreshThreads;
+    
+    @Value("${hospital.cache.local.refresh-queue-capacity:100}")
+    private int refreshQueueCapacity;
+    
+    private ThreadPoolExecutor refreshExecutor;
+    
+    /** How long a cache miss waits for another thread's load of the same key before failing */
+    @Value("${hospital.cache.local.load-wait-timeout-ms:10000}")
+    private long loadWaitTimeoutMs;
+    
+    @Value("${hospital.cache.negative.max-size:10000}")
+    private long negativeMaxSize;
+    
+    /** How long a not-found lookup is remembered (0 disables negative caching) */
+    @Value("${hospital.cache.negative.ttl-seconds:30}")
+    private long negativeTtlSeconds;
+    
+    @Value("${hospital.cache.redis.ttl-seconds:600}")
+    private long redisTtlSeconds;
+    
+    /** smile (compact binary, per-cache DTO type) or jdk (Java serialization) */
+    @Value("${hospital.cache.redis.serializer:smile}")
+    private String redisSerializer;
+    
+    @Value("${hospital.cache.redis.compression-threshold:512}")
+    private int compressionThreshold;
     
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory) {
@@ -31,4 +108,71 @@ public class CacheConfig {
         
         return template;
     }
+    
+    /**
+     * Two-tier cache: bounded Caffeine L1 per node in front of the shared Redis L2
+     */
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory factory, CacheInvalidationBus invalidationBus,
+                                     RedisCircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        log.info("Configuring two-tier cache (L1 max size: {}, L1 TTL: {}s, L2 TTL: {}s)",
+                localMaxSize, localTtlSeconds, redisTtlSeconds);
+        
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofSeconds(redisTtlSeconds))
+                .disableCachingNullValues();
+        
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(factory)
+                .cacheDefaults(defaults);
+        if ("smile".equalsIgnoreCase(redisSerializer)) {
+            log.info("Using Smile serialization for cached values (compression above {} bytes)",
+                    compressionThreshold);
+            CACHED_TYPES.forEach((name, type) -> builder.withCacheConfiguration(name,
+                    defaults.serializeValuesWith(SerializationPair.fromSerializer(
+                            new SmileRedisSerializer<>(type, compressionThreshold)))));
+        }
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+        
+        // Bounded pool for refresh-ahead reloads, so a stale hit never waits on the database.
+        // Not a bean: an Executor bean would replace Boot's applicationTaskExecutor
+        refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(refreshQueueCapacity), new CustomizableThreadFactory("cache-refresh-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(refreshExecutor, "cache-refresh", List.of()).bindTo(meterRegistry);
+        
+        return new TwoTierCacheManager(redisCacheManager, CACHED_TYPES.keySet(),
+                localMaxSize, Duration.ofSeconds(localTtlSeconds),
+                Duration.ofMillis((long) (localTtlSeconds * 1000 * refreshAheadRatio)),
+                refreshExecutor, Duration.ofMillis(loadWaitTimeoutMs),
+                negativeMaxSize, Duration.ofSeconds(negativeTtlSeconds),
+                invalidationBus, circuitBreaker, meterRegistry);
+    }
+    
+    @PreDestroy
+    void shutdownRefreshExecutor() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdown();
+        }
+    }
+    
+    /**
+     * Subscription to the cache invalidation channel shared by all nodes
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory factory,
+                                                                           CacheInvalidationBus invalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(invalidationBus, new ChannelTopic(invalidationBus.getChannel()));
+        return container;
+    }
+    
+    /**
+     * A cache failure (e.g. Redis unreachable) is logged and the call falls through to the database
+     */
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler();
+    }
 }
@@ -0,0 +1,58 @@
+package com.hospital.config;
+
+import com.hospital.util.ConcurrencyLimitingDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Gates database access with a semaphore sized to the connection pool
+ * (hospital.datasource.concurrency-limit.*), enabled by the virtual-threads profile
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "hospital.datasource.concurrency-limit.enabled", havingValue = "true")
+public class DataSourceConcurrencyConfig {
+    
+    @Bean
+    public static BeanPostProcessor dataSourceConcurrencyLimiter(Environment environment) {
+        int configured = environment.getProperty("hospital.datasource.concurrency-limit.max-concurrent", Integer.class, 0);
+        int maxConcurrent = configured > 0 ? configured
+                : environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        long acquireTimeoutMillis = environment.getProperty(
+                "hospital.datasource.concurrency-limit.acquire-timeout-ms", Long.class, 2000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitingDataSource)) {
+                    log.info("Limiting data source '{}' to {} concurrent connections", beanName, maxConcurrent);
+                    return new ConcurrencyLimitingDataSource(dataSource, maxConcurrent, acquireTimeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+    
+    @Bean
+    public MeterBinder dataSourceConcurrencyMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitingDataSource limited) {
+                Gauge.builder("hospital.datasource.permits.available", limited,
+                                ConcurrencyLimitingDataSource::getAvailablePermits)
+                        .description("Database connections that may still be checked out")
+                        .register(registry);
+                Gauge.builder("hospital.datasource.permits.waiting", limited,
+                                ConcurrencyLimitingDataSource::getWaitingCount)
+                        .description("Callers waiting for a database connection")
+                        .register(registry);
+            }
+        };
+    }
+}
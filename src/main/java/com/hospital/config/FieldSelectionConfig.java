@@ -0,0 +1,39 @@
+package com.hospital.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.hospital.dto.AppointmentDTO;
+import com.hospital.dto.DoctorDTO;
+import com.hospital.dto.MedicalRecordDTO;
+import com.hospital.dto.PatientDTO;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Attaches a property filter to the DTOs that support the fields parameter.
+ * The filter is attached through a mix-in on the web ObjectMapper only, so the cache
+ * serializers are unaffected; without a selection the filter lets every property through.
+ */
+@Configuration
+public class FieldSelectionConfig {
+    
+    public static final String FILTER_ID = "fieldSelection";
+    
+    public static final Set<Class<?>> FILTERED_TYPES =
+            Set.of(PatientDTO.class, DoctorDTO.class, AppointmentDTO.class, MedicalRecordDTO.class);
+    
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionCustomizer() {
+        return builder -> {
+            FILTERED_TYPES.forEach(type -> builder.mixIn(type, FieldSelectionMixin.class));
+            builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+        };
+    }
+    
+    @JsonFilter(FILTER_ID)
+    interface FieldSelectionMixin {
+    }
+}
@@ -0,0 +1,60 @@
+package com.hospital.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.hospital.util.FieldSelection;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Collection;
+
+/**
+ * Applies the fields parameter to every JSON response containing a filtered DTO, whether
+ * single, in a list or in a page. List endpoints also push the selection into their query,
+ * so this mostly strips the fields of responses served from the cache.
+ */
+@RestControllerAdvice
+public class FieldSelectionResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+    
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        FieldSelection fields = FieldSelection.parse(servletRequest.getServletRequest().getParameter(FieldSelection.PARAMETER));
+        if (fields.isAll()) {
+            return;
+        }
+        Class<?> dtoType = dtoTypeOf(bodyContainer.getValue());
+        if (dtoType == null) {
+            return;
+        }
+        fields.validate(dtoType);
+        bodyContainer.setFilters(new SimpleFilterProvider()
+                .addFilter(FieldSelectionConfig.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields.getNames()))
+                .setFailOnUnknownId(false));
+    }
+    
+    /**
+     * The filtered DTO type in the body, or null if there is none (or the collection is empty)
+     */
+    private static Class<?> dtoTypeOf(Object body) {
+        Object element = body;
+        if (body instanceof Page<?> page) {
+            element = page.getContent().isEmpty() ? null : page.getContent().get(0);
+        } else if (body instanceof Collection<?> collection) {
+            element = collection.isEmpty() ? null : collection.iterator().next();
+        }
+        return element != null && FieldSelectionConfig.FILTERED_TYPES.contains(element.getClass())
+                ? element.getClass() : null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.hospital.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limits per route group (hospital.rate-limit.*).
+ * Each client (the authenticated username, or the remote IP for anonymous requests) gets its
+ * own token bucket per group; the first group whose method and paths match applies.
+ * The remote IP is the one resolved from X-Forwarded-For by the servlet container, which only
+ * trusts that header from the configured proxies (server.tomcat.remoteip.internal-proxies).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "hospital.rate-limit")
+public class RateLimitProperties {
+    
+    private boolean enabled = true;
+    
+    /**
+     * Maximum number of client buckets held per node
+     */
+    private long maxClients = 100_000;
+    
+    /**
+     * Buckets unused for this long are dropped; must exceed the time to refill a bucket
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    
+    private List<RouteGroup> groups = new ArrayList<>();
+    
+    @Data
+    public static class RouteGroup {
+        
+        private String name;
+        
+        /**
+         * HTTP method to match, or empty for any method
+         */
+        private String method;
+        
+        /**
+         * Ant-style path patterns, relative to the context path
+         */
+        private List<String> paths = new ArrayList<>();
+        
+        /**
+         * Requests a client may burst before being limited to the refill rate
+         */
+        private long capacity = 50;
+        
+        private double refillPerSecond = 10;
+        
+        /**
+         * Requests per second per client across all nodes, enforced through Redis; 0 disables
+         */
+        private long globalPerSecond;
+        
+        /**
+         * Top-level field of the JSON request body added to the key of anonymous clients, e.g.
+         * username for login, so users behind one address do not share a single bucket
+         */
+        private String keyBodyField;
+    }
+}
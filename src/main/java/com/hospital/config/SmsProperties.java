@@ -0,0 +1,57 @@
+package com.hospital.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * SMS dispatch settings (hospital.notification.sms.*).
+ * Messages are queued by the caller and sent by a fixed set of workers at no more than
+ * the provider's accepted rate; failed sends are retried with exponential backoff.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "hospital.notification.sms")
+public class SmsProperties {
+    
+    /**
+     * Gateway implementation: twilio, or stub to only log messages
+     */
+    private String gateway = "twilio";
+    
+    /**
+     * Messages waiting to be sent; beyond this they go straight to the dead-letter table
+     */
+    private int queueCapacity = 10_000;
+    
+    private int workers = 4;
+    
+    /**
+     * Messages per second accepted by the provider, shared by all workers
+     */
+    private double ratePerSecond = 1;
+    
+    /**
+     * Messages that may be sent at once before the rate applies
+     */
+    private long burst = 1;
+    
+    /**
+     * Send attempts, including the first, before a message is dead-lettered
+     */
+    private int maxAttempts = 5;
+    
+    /**
+     * Delay before the first retry; doubled for each further attempt up to maxBackoff
+     */
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    
+    private Duration maxBackoff = Duration.ofMinutes(1);
+    
+    /**
+     * How long shutdown waits for queued messages to be sent before dead-lettering the rest
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,87 @@
+package com.hospital.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads pinned to their carrier thread, typically by blocking inside a
+ * synchronized block, which stops the carrier from running other virtual threads.
+ * Listens to the JDK's jdk.VirtualThreadPinned flight recorder event in-process; each distinct
+ * stack is logged once at warn level, and every occurrence counts towards
+ * hospital.virtual-threads.pinned.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+    
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+    
+    private final Counter pinned;
+    private final Duration threshold;
+    private final Set<String> reportedStacks = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+    
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${hospital.virtual-threads.pinning-threshold-ms:20}") long thresholdMillis) {
+        this.pinned = Counter.builder("hospital.virtual-threads.pinned")
+                .description("Virtual threads pinned to their carrier for longer than the threshold")
+                .register(meterRegistry);
+        this.threshold = Duration.ofMillis(thresholdMillis);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int feature = Runtime.version().feature();
+        if (feature < 21) {
+            log.warn("Virtual threads are enabled but the JVM is Java {}; requests run on platform threads. "
+                    + "Build and run with Java 21 (mvn -Pjdk21)", feature);
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Monitoring virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+    
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        String stack = event.getStackTrace() == null ? "(no stack trace)" : event.getStackTrace().getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(VirtualThreadPinningMonitor::describe)
+                .collect(Collectors.joining("\n\tat "));
+        if (reportedStacks.add(stack)) {
+            log.warn("Virtual thread pinned for {} ms:\n\tat {}", event.getDuration().toMillis(), stack);
+        } else {
+            log.debug("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), stack.lines().findFirst().orElse(""));
+        }
+    }
+    
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+    
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
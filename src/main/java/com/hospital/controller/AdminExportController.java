@@ -0,0 +1,50 @@
+package com.hospital.controller;
+
+import com.hospital.service.ExportService;
+import com.hospital.service.ExportService.ExportEntity;
+import com.hospital.service.ExportService.ExportFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+/**
+ * REST Controller for bulk data export (admin only)
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/export")
+@RequiredArgsConstructor
+@Tag(name = "Data Export", description = "APIs for streaming full entity exports to the data warehouse")
+public class AdminExportController {
+    
+    private final ExportService exportService;
+    
+    @GetMapping("/{entity}")
+    @Operation(summary = "Export an entity set", description = "Stream patients, doctors, appointments or medical-records as gzip NDJSON or CSV, optionally only rows updated since a given time")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String entity,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        log.info("GET /admin/export/{} - Exporting as {}", entity, format);
+        
+        ExportEntity exportEntity = ExportEntity.fromPath(entity);
+        ExportFormat exportFormat = ExportFormat.fromName(format);
+        String filename = exportEntity.getPath() + "." + exportFormat.getExtension() + ".gz";
+        
+        StreamingResponseBody body = out -> exportService.export(exportEntity, exportFormat, since, out);
+        
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .body(body);
+    }
+}
@@ -1,7 +1,10 @@
 package com.hospital.controller;
 
 import com.hospital.dto.AppointmentDTO;
+import com.hospital.dto.IdLookupRequest;
 import com.hospital.service.AppointmentService;
+import com.hospital.util.ETags;
+import com.hospital.util.FieldSelection;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -9,9 +12,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 /**
  * REST Controller for Appointment Management APIs
@@ -36,28 +43,49 @@ public class AppointmentController {
     
     @GetMapping("/{id}")
     @Operation(summary = "Get appointment by ID", description = "Retrieve appointment details by appointment ID")
-    public ResponseEntity<AppointmentDTO> getAppointmentById(@PathVariable Long id) {
+    public ResponseEntity<AppointmentDTO> getAppointmentById(@PathVariable Long id, WebRequest request) {
         log.info("GET /appointments/{} - Fetching appointment", id);
         AppointmentDTO appointment = appointmentService.getAppointmentById(id);
-        return ResponseEntity.ok(appointment);
+        if (request.checkNotModified(ETags.forEntity("appointment", id, appointment.getUpdatedAt()))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(appointment);
     }
     
     @GetMapping
     @Operation(summary = "Get all appointments", description = "Retrieve all appointments with pagination and sorting")
-    public ResponseEntity<Page<AppointmentDTO>> getAllAppointments(Pageable pageable) {
+    public ResponseEntity<Page<AppointmentDTO>> getAllAppointments(
+            Pageable pageable,
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields) {
         log.info("GET /appointments - Fetching all appointments");
-        Page<AppointmentDTO> appointments = appointmentService.getAllAppointments(pageable);
+        Page<AppointmentDTO> appointments = appointmentService
+                .getAllAppointments(pageable, FieldSelection.parse(fields));
         return ResponseEntity.ok(appointments);
     }
     
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get appointments by IDs", description = "Retrieve several appointments in one call; unknown IDs are left out")
+    public ResponseEntity<List<AppointmentDTO>> getAppointmentsByIds(@RequestParam List<Long> ids) {
+        log.info("GET /appointments?ids - Fetching {} appointments", ids.size());
+        return ResponseEntity.ok(appointmentService.getAppointmentsByIds(ids));
+    }
+    
+    @PostMapping("/lookup")
+    @Operation(summary = "Look up appointments by IDs", description = "Bulk lookup for ID lists too long for a query string")
+    public ResponseEntity<List<AppointmentDTO>> lookupAppointments(@Valid @RequestBody IdLookupRequest request) {
+        log.info("POST /appointments/lookup - Fetching {} appointments", request.getIds().size());
+        return ResponseEntity.ok(appointmentService.getAppointmentsByIds(request.getIds()));
+    }
+    
     @GetMapping("/patient/{patientId}")
     @Operation(summary = "Get patient appointments", description = "Retrieve all appointments for a specific patient")
     public ResponseEntity<Page<AppointmentDTO>> getPatientAppointments(
             @PathVariable Long patientId,
-            Pageable pageable) {
+            Pageable pageable,
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields) {
         log.info("GET /appointments/patient/{} - Fetching patient appointments", patientId);
         Page<AppointmentDTO> appointments = appointmentService
-                .getPatientAppointments(patientId, pageable);
+                .getPatientAppointments(patientId, pageable, FieldSelection.parse(fields));
         return ResponseEntity.ok(appointments);
     }
     
@@ -65,11 +93,19 @@ public class AppointmentController {
     @Operation(summary = "Get doctor appointments", description = "Retrieve all appointments for a specific doctor")
     public ResponseEntity<Page<AppointmentDTO>> getDoctorAppointments(
             @PathVariable Long doctorId,
-            Pageable pageable) {
+            Pageable pageable,
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields,
+            WebRequest request) {
         log.info("GET /appointments/doctor/{} - Fetching doctor appointments", doctorId);
+        FieldSelection selection = FieldSelection.parse(fields);
+        // 304 Not Modified is written without loading the page
+        if (request.checkNotModified(ETags.forPage("doctor-appointments",
+                appointmentService.getDoctorAppointmentsVersion(doctorId), pageable, doctorId, selection))) {
+            return null;
+        }
         Page<AppointmentDTO> appointments = appointmentService
-                .getDoctorAppointments(doctorId, pageable);
-        return ResponseEntity.ok(appointments);
+                .getDoctorAppointments(doctorId, pageable, selection);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(appointments);
     }
     
     @PutMapping("/{id}/status")
@@ -3,18 +3,24 @@ package com.hospital.controller;
 import com.hospital.dto.AuthRequest;
 import com.hospital.dto.AuthResponse;
 import com.hospital.security.JwtTokenProvider;
+import com.hospital.security.JwtTokenVerifier;
+import com.hospital.security.LoginService;
+import com.hospital.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * REST Controller for Authentication
  */
@@ -25,34 +31,42 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Authentication", description = "APIs for user authentication")
 public class AuthController {
     
-    private final AuthenticationManager authenticationManager;
+    private final LoginService loginService;
     private final JwtTokenProvider jwtTokenProvider;
+    private final JwtTokenVerifier jwtTokenVerifier;
+    private final TokenRevocationService tokenRevocationService;
     
     @PostMapping("/login")
-    @Operation(summary = "User login", description = "Authenticate user and generate JWT token")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest authRequest) {
+    @Operation(summary = "User login", description = "Authenticate user and generate JWT token. Responds 503 with Retry-After when too many logins are in progress")
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestBody AuthRequest authRequest) {
         log.info("Login attempt for username: {}", authRequest.getUsername());
         
-        try {
-            // TEMPORARY: For testing - generate token for any username
-            String token = jwtTokenProvider.generateToken(authRequest.getUsername());
-            
-            AuthResponse response = AuthResponse.builder()
-                    .token(token)
-                    .username(authRequest.getUsername())
-                    .message("Login successful")
-                    .build();
-            
-            log.info("Login successful for username: {}", authRequest.getUsername());
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            log.error("Authentication failed for username: {}", authRequest.getUsername(), e);
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(AuthResponse.builder()
-                            .message("Authentication failed: " + e.getMessage())
-                            .build());
-        }
+        // Password hashing runs on the login pool; the request thread is released meanwhile
+        return loginService.authenticate(authRequest.getUsername(), authRequest.getPassword())
+                .thenApply(authentication -> {
+                    UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+                    String token = jwtTokenProvider.generateToken(userDetails);
+                    
+                    AuthResponse response = AuthResponse.builder()
+                            .token(token)
+                            .username(userDetails.getUsername())
+                            .message("Login successful")
+                            .build();
+                    
+                    log.info("Login successful for username: {}", userDetails.getUsername());
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (!(cause instanceof AuthenticationException)) {
+                        throw new CompletionException(cause);
+                    }
+                    log.warn("Authentication failed for username: {}: {}", authRequest.getUsername(), cause.getMessage());
+                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                            .body(AuthResponse.builder()
+                                    .message("Authentication failed: invalid username or password")
+                                    .build());
+                });
     }
     
     @PostMapping("/validate")
@@ -66,8 +80,24 @@ public class AuthController {
         }
         
         String token = bearerToken.substring(7);
-        boolean isValid = jwtTokenProvider.validateToken(token);
-        
-        return ResponseEntity.ok(isValid);
+        try {
+            Claims claims = jwtTokenVerifier.verify(token);
+            return ResponseEntity.ok(!tokenRevocationService.isRevoked(claims));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("JWT validation failed: {}", e.getMessage());
+            return ResponseEntity.ok(false);
+        }
+    }
+    
+    @PostMapping("/logout")
+    @Operation(summary = "User logout", description = "Revoke the JWT token used for this request until it expires")
+    public ResponseEntity<Void> logout(
+            @RequestAttribute(name = JwtTokenVerifier.CLAIMS_ATTRIBUTE, required = false) Claims claims) {
+        if (claims == null || claims.getId() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.info("Logout for username: {}", claims.getSubject());
+        tokenRevocationService.revoke(claims);
+        return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,53 @@
+package com.hospital.controller;
+
+import com.hospital.cache.TwoTierCache;
+import com.hospital.cache.TwoTierCacheManager;
+import com.hospital.exception.ResourceNotFoundException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for cache statistics (admin only).
+ * The same numbers are published as hospital.cache.* meters on /actuator/metrics.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/cache")
+@RequiredArgsConstructor
+@Tag(name = "Cache Administration", description = "APIs for inspecting cache effectiveness")
+public class CacheAdminController {
+    
+    private final CacheManager cacheManager;
+    
+    @GetMapping
+    @Operation(summary = "Get cache statistics", description = "Hits and misses per tier, hit ratio, load latency, entry counts and estimated bytes for every cache")
+    public ResponseEntity<List<TwoTierCache.Statistics>> getStatistics() {
+        log.info("GET /admin/cache - Fetching cache statistics");
+        return ResponseEntity.ok(getCaches().stream().map(TwoTierCache::statistics).toList());
+    }
+    
+    @GetMapping("/{name}/hot-keys")
+    @Operation(summary = "Get hottest keys", description = "The keys of a cache's local tier least likely to be evicted, hottest first")
+    public ResponseEntity<List<String>> getHotKeys(
+            @PathVariable String name,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("GET /admin/cache/{}/hot-keys - Fetching top {} keys", name, limit);
+        TwoTierCache cache = getCaches().stream()
+                .filter(candidate -> candidate.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Cache not found: " + name));
+        return ResponseEntity.ok(List.copyOf(cache.hottestLocalEntries(Math.min(limit, 1000)).keySet()));
+    }
+    
+    private List<TwoTierCache> getCaches() {
+        return cacheManager instanceof TwoTierCacheManager twoTierCacheManager
+                ? twoTierCacheManager.getTwoTierCaches() : List.of();
+    }
+}
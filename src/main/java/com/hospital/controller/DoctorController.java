@@ -1,7 +1,10 @@
 package com.hospital.controller;
 
 import com.hospital.dto.DoctorDTO;
+import com.hospital.dto.IdLookupRequest;
 import com.hospital.service.DoctorService;
+import com.hospital.util.ETags;
+import com.hospital.util.FieldSelection;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -9,9 +12,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -37,18 +42,43 @@ public class DoctorController {
     
     @GetMapping("/{id}")
     @Operation(summary = "Get doctor by ID", description = "Retrieve doctor details by doctor ID")
-    public ResponseEntity<DoctorDTO> getDoctorById(@PathVariable Long id) {
+    public ResponseEntity<DoctorDTO> getDoctorById(@PathVariable Long id, WebRequest request) {
         log.info("GET /doctors/{} - Fetching doctor", id);
         DoctorDTO doctor = doctorService.getDoctorById(id);
-        return ResponseEntity.ok(doctor);
+        if (request.checkNotModified(ETags.forEntity("doctor", id, doctor.getUpdatedAt()))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(doctor);
     }
     
     @GetMapping
     @Operation(summary = "Get all doctors", description = "Retrieve all doctors with pagination and sorting")
-    public ResponseEntity<Page<DoctorDTO>> getAllDoctors(Pageable pageable) {
+    public ResponseEntity<Page<DoctorDTO>> getAllDoctors(
+            Pageable pageable,
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields,
+            WebRequest request) {
         log.info("GET /doctors - Fetching all doctors");
-        Page<DoctorDTO> doctors = doctorService.getAllDoctors(pageable);
-        return ResponseEntity.ok(doctors);
+        FieldSelection selection = FieldSelection.parse(fields);
+        // 304 Not Modified is written without loading the page
+        if (request.checkNotModified(ETags.forPage("doctors", doctorService.getDoctorsVersion(), pageable, selection))) {
+            return null;
+        }
+        Page<DoctorDTO> doctors = doctorService.getAllDoctors(pageable, selection);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(doctors);
+    }
+    
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get doctors by IDs", description = "Retrieve several doctors in one call; unknown IDs are left out")
+    public ResponseEntity<List<DoctorDTO>> getDoctorsByIds(@RequestParam List<Long> ids) {
+        log.info("GET /doctors?ids - Fetching {} doctors", ids.size());
+        return ResponseEntity.ok(doctorService.getDoctorsByIds(ids));
+    }
+    
+    @PostMapping("/lookup")
+    @Operation(summary = "Look up doctors by IDs", description = "Bulk lookup for ID lists too long for a query string")
+    public ResponseEntity<List<DoctorDTO>> lookupDoctors(@Valid @RequestBody IdLookupRequest request) {
+        log.info("POST /doctors/lookup - Fetching {} doctors", request.getIds().size());
+        return ResponseEntity.ok(doctorService.getDoctorsByIds(request.getIds()));
     }
     
     @GetMapping("/specialization/{specialization}")
@@ -1,7 +1,10 @@
 package com.hospital.controller;
 
+import com.hospital.dto.BulkImportResultDTO;
 import com.hospital.dto.MedicalRecordDTO;
+import com.hospital.service.MedicalRecordIngestionService;
 import com.hospital.service.MedicalRecordService;
+import com.hospital.util.FieldSelection;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -10,9 +13,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -26,6 +32,7 @@ import java.util.List;
 public class MedicalRecordController {
     
     private final MedicalRecordService medicalRecordService;
+    private final MedicalRecordIngestionService medicalRecordIngestionService;
     
     @PostMapping
     @Operation(summary = "Create a medical record", description = "Create a new medical record for a patient")
@@ -36,6 +43,14 @@ public class MedicalRecordController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdRecord);
     }
     
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    @Operation(summary = "Bulk ingest medical records", description = "Ingest newline-delimited JSON medical records in batches and report per-line errors")
+    public ResponseEntity<BulkImportResultDTO> ingestMedicalRecords(InputStream ndjson) throws IOException {
+        log.info("POST /medical-records/bulk - Ingesting medical records");
+        BulkImportResultDTO result = medicalRecordIngestionService.ingest(ndjson);
+        return ResponseEntity.ok(result);
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get medical record by ID", description = "Retrieve medical record details by ID")
     public ResponseEntity<MedicalRecordDTO> getMedicalRecordById(@PathVariable Long id) {
@@ -48,10 +63,11 @@ public class MedicalRecordController {
     @Operation(summary = "Get patient medical records", description = "Retrieve all medical records for a specific patient")
     public ResponseEntity<Page<MedicalRecordDTO>> getPatientMedicalRecords(
             @PathVariable Long patientId,
-            Pageable pageable) {
+            Pageable pageable,
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields) {
         log.info("GET /medical-records/patient/{} - Fetching patient medical records", patientId);
         Page<MedicalRecordDTO> records = medicalRecordService
-                .getPatientMedicalRecords(patientId, pageable);
+                .getPatientMedicalRecords(patientId, pageable, FieldSelection.parse(fields));
         return ResponseEntity.ok(records);
     }
     
@@ -68,10 +84,11 @@ public class MedicalRecordController {
     @Operation(summary = "Get doctor medical records", description = "Retrieve all medical records created by a specific doctor")
     public ResponseEntity<Page<MedicalRecordDTO>> getDoctorMedicalRecords(
             @PathVariable Long doctorId,
-            Pageable pageable) {
+            Pageable pageable,
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields) {
         log.info("GET /medical-records/doctor/{} - Fetching doctor medical records", doctorId);
         Page<MedicalRecordDTO> records = medicalRecordService
-                .getDoctorMedicalRecords(doctorId, pageable);
+                .getDoctorMedicalRecords(doctorId, pageable, FieldSelection.parse(fields));
         return ResponseEntity.ok(records);
     }
     
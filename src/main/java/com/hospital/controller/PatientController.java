@@ -1,7 +1,13 @@
 package com.hospital.controller;
 
+import com.hospital.dto.BulkImportResultDTO;
+import com.hospital.dto.IdLookupRequest;
 import com.hospital.dto.PatientDTO;
+import com.hospital.dto.PatientHistoryDTO;
+import com.hospital.service.PatientImportService;
 import com.hospital.service.PatientService;
+import com.hospital.util.ETags;
+import com.hospital.util.FieldSelection;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -9,9 +15,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * REST Controller for Patient Management APIs
@@ -24,6 +39,7 @@ import org.springframework.web.bind.annotation.*;
 public class PatientController {
     
     private final PatientService patientService;
+    private final PatientImportService patientImportService;
     
     @PostMapping
     @Operation(summary = "Create a new patient", description = "Register a new patient in the system")
@@ -33,22 +49,49 @@ public class PatientController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdPatient);
     }
     
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    @Operation(summary = "Bulk import patients", description = "Import patients from a CSV file with a header row, inserting in batches and reporting per-row errors")
+    public ResponseEntity<BulkImportResultDTO> importPatients(InputStream csv) throws IOException {
+        log.info("POST /patients/import - Importing patients");
+        BulkImportResultDTO result = patientImportService.importPatients(csv);
+        return ResponseEntity.ok(result);
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get patient by ID", description = "Retrieve patient details by patient ID")
-    public ResponseEntity<PatientDTO> getPatientById(@PathVariable Long id) {
+    public ResponseEntity<PatientDTO> getPatientById(@PathVariable Long id, WebRequest request) {
         log.info("GET /patients/{} - Fetching patient", id);
         PatientDTO patient = patientService.getPatientById(id);
-        return ResponseEntity.ok(patient);
+        if (request.checkNotModified(ETags.forEntity("patient", id, patient.getUpdatedAt()))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(patient);
     }
     
     @GetMapping
     @Operation(summary = "Get all patients", description = "Retrieve all patients with pagination and sorting")
-    public ResponseEntity<Page<PatientDTO>> getAllPatients(Pageable pageable) {
+    public ResponseEntity<Page<PatientDTO>> getAllPatients(
+            Pageable pageable,
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields) {
         log.info("GET /patients - Fetching all patients");
-        Page<PatientDTO> patients = patientService.getAllPatients(pageable);
+        Page<PatientDTO> patients = patientService.getAllPatients(pageable, FieldSelection.parse(fields));
         return ResponseEntity.ok(patients);
     }
     
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get patients by IDs", description = "Retrieve several patients in one call; unknown IDs are left out")
+    public ResponseEntity<List<PatientDTO>> getPatientsByIds(@RequestParam List<Long> ids) {
+        log.info("GET /patients?ids - Fetching {} patients", ids.size());
+        return ResponseEntity.ok(patientService.getPatientsByIds(ids));
+    }
+    
+    @PostMapping("/lookup")
+    @Operation(summary = "Look up patients by IDs", description = "Bulk lookup for ID lists too long for a query string")
+    public ResponseEntity<List<PatientDTO>> lookupPatients(@Valid @RequestBody IdLookupRequest request) {
+        log.info("POST /patients/lookup - Fetching {} patients", request.getIds().size());
+        return ResponseEntity.ok(patientService.getPatientsByIds(request.getIds()));
+    }
+    
     @PutMapping("/{id}")
     @Operation(summary = "Update patient", description = "Update patient information")
     public ResponseEntity<PatientDTO> updatePatient(
@@ -68,10 +111,16 @@ public class PatientController {
     }
     
     @GetMapping("/{id}/history")
-    @Operation(summary = "Get patient medical history", description = "Retrieve patient's medical records and history")
-    public ResponseEntity<PatientDTO> getPatientHistory(@PathVariable Long id) {
+    @Operation(summary = "Get patient medical history", description = "Retrieve a time-ordered timeline of the patient's appointments and medical records, paged by time window")
+    public ResponseEntity<PatientHistoryDTO> getPatientHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) String beforeType,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "50") int size) {
         log.info("GET /patients/{}/history - Fetching patient medical history", id);
-        PatientDTO patientHistory = patientService.getPatientHistory(id);
+        PatientHistoryDTO patientHistory = patientService.getPatientHistory(id, from, before, beforeType, beforeId, size);
         return ResponseEntity.ok(patientHistory);
     }
 }
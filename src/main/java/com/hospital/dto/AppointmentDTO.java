@@ -8,13 +8,14 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class AppointmentDTO {
+public class AppointmentDTO implements Serializable {
     private Long id;
     
     @NotNull(message = "Patient ID cannot be null")
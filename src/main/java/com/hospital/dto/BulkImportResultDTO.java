@@ -0,0 +1,39 @@
+package com.hospital.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk ingestion or import run, with per-line errors
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportResultDTO {
+    private long totalLines;
+    private long imported;
+    private long failed;
+    
+    @Builder.Default
+    private List<LineError> errors = new ArrayList<>();
+    
+    /**
+     * Set when more errors occurred than are reported individually
+     */
+    private boolean errorsTruncated;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class LineError {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,19 @@
+package com.hospital.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdLookupRequest {
+    @NotEmpty(message = "ids cannot be empty")
+    private List<@NotNull(message = "ids cannot contain null") Long> ids;
+}
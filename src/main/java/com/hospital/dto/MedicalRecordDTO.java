@@ -6,13 +6,14 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class MedicalRecordDTO {
+public class MedicalRecordDTO implements Serializable {
     private Long id;
     private Long patientId;
     private Long doctorId;
@@ -0,0 +1,39 @@
+package com.hospital.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Patient details with a time-ordered (newest first) timeline of appointments and medical records
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientHistoryDTO {
+    private PatientDTO patient;
+    
+    @Builder.Default
+    private List<TimelineEntryDTO> entries = new ArrayList<>();
+    
+    private boolean hasMore;
+    
+    /**
+     * Pass as the "before" parameter to fetch the next (older) window.
+     * Serialized as full-precision ISO-8601 so the window boundary is exact.
+     */
+    private LocalDateTime nextBefore;
+    
+    /**
+     * Pass as "beforeType" and "beforeId" together with nextBefore, so entries sharing the
+     * nextBefore timestamp that did not fit on this page are not skipped
+     */
+    private String nextBeforeType;
+    private Long nextBeforeId;
+}
@@ -0,0 +1,35 @@
+package com.hospital.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single entry of a patient timeline: either an appointment or a medical record
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TimelineEntryDTO {
+    
+    public static final String APPOINTMENT = "APPOINTMENT";
+    public static final String MEDICAL_RECORD = "MEDICAL_RECORD";
+    
+    private String type;
+    
+    /** Id of the appointment or medical record; with type and timestamp it orders entries uniquely */
+    private Long id;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime timestamp;
+    
+    private AppointmentDTO appointment;
+    private MedicalRecordDTO medicalRecord;
+}
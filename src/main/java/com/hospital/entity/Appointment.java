@@ -15,7 +15,7 @@ import java.time.LocalDateTime;
  * Uses pessimistic locking to prevent overbooking
  */
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = @Index(name = "idx_appointments_updated_at", columnList = "updated_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,13 +17,17 @@ import java.util.List;
  * Doctor entity representing a hospital doctor
  */
 @Entity
-@Table(name = "doctors")
+@Table(name = "doctors",
+        indexes = @Index(name = "idx_doctors_updated_at", columnList = "updated_at"),
+        uniqueConstraints = @UniqueConstraint(name = Doctor.EMAIL_CONSTRAINT, columnNames = "email"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Doctor {
     
+    public static final String EMAIL_CONSTRAINT = "uk_doctors_email";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
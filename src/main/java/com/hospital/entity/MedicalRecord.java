@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
  * MedicalRecord entity for patient medical history
  */
 @Entity
-@Table(name = "medical_records")
+@Table(name = "medical_records", indexes = @Index(name = "idx_medical_records_updated_at", columnList = "updated_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,13 +17,21 @@ import java.util.List;
  * Patient entity representing a hospital patient
  */
 @Entity
-@Table(name = "patients")
+@Table(name = "patients",
+        indexes = @Index(name = "idx_patients_updated_at", columnList = "updated_at"),
+        uniqueConstraints = {
+                @UniqueConstraint(name = Patient.EMAIL_CONSTRAINT, columnNames = "email"),
+                @UniqueConstraint(name = Patient.PHONE_CONSTRAINT, columnNames = "phone")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Patient {
     
+    public static final String EMAIL_CONSTRAINT = "uk_patients_email";
+    public static final String PHONE_CONSTRAINT = "uk_patients_phone";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
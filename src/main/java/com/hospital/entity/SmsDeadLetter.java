@@ -0,0 +1,43 @@
+package com.hospital.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * SmsDeadLetter entity recording an SMS that could not be delivered after all retries,
+ * or was dropped because the dispatch queue was full, so it can be inspected and resent.
+ */
+@Entity
+@Table(name = "sms_dead_letters", indexes = {
+        @Index(name = "idx_sms_dead_letters_failed_at", columnList = "failed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SmsDeadLetter {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 32)
+    private String recipient;
+    
+    @Column(nullable = false, length = 1600)
+    private String body;
+    
+    @Column(nullable = false)
+    private Integer attempts;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt;
+}
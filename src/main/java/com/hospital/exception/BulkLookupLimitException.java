@@ -0,0 +1,11 @@
+package com.hospital.exception;
+
+/**
+ * Exception thrown when a bulk lookup asks for more ids than one request may carry
+ */
+public class BulkLookupLimitException extends RuntimeException {
+    
+    public BulkLookupLimitException(String message) {
+        super(message);
+    }
+}
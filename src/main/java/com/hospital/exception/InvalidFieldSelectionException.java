@@ -0,0 +1,11 @@
+package com.hospital.exception;
+
+/**
+ * Exception thrown when the fields parameter names a field the response does not have
+ */
+public class InvalidFieldSelectionException extends RuntimeException {
+    
+    public InvalidFieldSelectionException(String message) {
+        super(message);
+    }
+}
@@ -1,11 +1,12 @@
 package com.hospital.exception;
 
 /**
- * Custom exception for resource not found scenarios
+ * Custom exception for resource not found scenarios.
+ * Not-found is an expected outcome, so the plain message form skips stack trace capture.
  */
 public class ResourceNotFoundException extends RuntimeException {
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
     
     public ResourceNotFoundException(String message, Throwable cause) {
@@ -0,0 +1,11 @@
+package com.hospital.exception;
+
+/**
+ * Exception thrown when an export is requested in a format the exporter does not produce
+ */
+public class UnsupportedExportFormatException extends RuntimeException {
+    
+    public UnsupportedExportFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,31 @@
+package com.hospital.notification;
+
+/**
+ * Appointment SMS waiting to be sent; the text is only rendered for the notification that
+ * is finally sent
+ */
+public record AppointmentNotification(Type type, String patientPhone, String doctorName, String appointmentDateTime) {
+    
+    public enum Type {
+        CONFIRMATION,
+        CANCELLATION,
+        REMINDER
+    }
+    
+    public String render() {
+        return switch (type) {
+            case CONFIRMATION -> String.format(
+                    "Appointment Confirmation: Your appointment with Dr. %s is scheduled for %s. " +
+                    "Please arrive 10 minutes early. Reply CONFIRM to confirm or CANCEL to cancel.",
+                    doctorName, appointmentDateTime);
+            case CANCELLATION -> String.format(
+                    "Appointment Cancelled: Your appointment with Dr. %s has been cancelled. " +
+                    "Please contact the hospital to reschedule.",
+                    doctorName);
+            case REMINDER -> String.format(
+                    "Appointment Reminder: You have an appointment with Dr. %s scheduled for %s. " +
+                    "Please confirm your attendance.",
+                    doctorName, appointmentDateTime);
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.hospital.notification;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Drops appointment notifications whose text matches the last one sent for the appointment,
+ * which absorbs outbox events delivered more than once, and hands the rest to the SmsDispatcher.
+ * Merging changes to the same appointment happens earlier, in AppointmentSmsHandler, while
+ * the outbox event is still pending.
+ */
+@Slf4j
+@Component
+public class NotificationDeduplicator {
+    
+    private final SmsDispatcher smsDispatcher;
+    
+    /**
+     * Hash of the last message sent per appointment
+     */
+    private final Cache<Key, String> sentHashes;
+    
+    private final Counter duplicates;
+    
+    public NotificationDeduplicator(SmsDispatcher smsDispatcher,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${hospital.notification.coalescing.dedupe-ttl-hours:24}") long dedupeTtlHours,
+                                    @Value("${hospital.notification.coalescing.dedupe-max-size:100000}") long dedupeMaxSize) {
+        this.smsDispatcher = smsDispatcher;
+        this.sentHashes = Caffeine.newBuilder()
+                .maximumSize(dedupeMaxSize)
+                .expireAfterWrite(Duration.ofHours(dedupeTtlHours))
+                .build();
+        this.duplicates = Counter.builder("hospital.notification.coalesced")
+                .description("Notifications not sent because they were merged or redundant")
+                .tag("reason", "duplicate")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Queue the notification unless the same text was just sent for this appointment
+     */
+    public void submit(Long patientId, Long appointmentId, AppointmentNotification notification) {
+        Key key = new Key(patientId, appointmentId);
+        String body = notification.render();
+        String hash = DigestUtils.md5DigestAsHex((notification.patientPhone() + '\n' + body)
+                .getBytes(StandardCharsets.UTF_8));
+        if (hash.equals(sentHashes.asMap().put(key, hash))) {
+            duplicates.increment();
+            log.debug("Dropping duplicate notification for appointment {}", appointmentId);
+            return;
+        }
+        smsDispatcher.submit(new SmsMessage(notification.patientPhone(), body));
+    }
+    
+    private record Key(Long patientId, Long appointmentId) {
+    }
+}
@@ -0,0 +1,228 @@
+package com.hospital.notification;
+
+import com.hospital.config.SmsProperties;
+import com.hospital.entity.SmsDeadLetter;
+import com.hospital.repository.SmsDeadLetterRepository;
+import com.hospital.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous SMS delivery.
+ * Callers only enqueue a message, so a slow or failing provider never holds up a request.
+ * A fixed set of workers drains the bounded queue, sharing one token bucket so the provider
+ * sees no more than its accepted rate. Transient failures are re-queued after an exponential
+ * backoff with jitter; permanent failures, exhausted retries and messages that do not fit in
+ * the queue are stored in the sms_dead_letters table instead of being lost.
+ */
+@Slf4j
+@Component
+public class SmsDispatcher {
+    
+    private final SmsGateway gateway;
+    private final SmsDeadLetterRepository deadLetterRepository;
+    private final SmsProperties properties;
+    private final BlockingQueue<Delivery> queue;
+    private final TokenBucket rateLimiter;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final Timer sendTimer;
+    private final Counter retried;
+    private final Counter deadLettered;
+    
+    /**
+     * Failed deliveries waiting for their backoff to elapse
+     */
+    private final Set<Delivery> pendingRetries = Collections.newSetFromMap(
+            Collections.synchronizedMap(new IdentityHashMap<>()));
+    
+    private volatile boolean running = true;
+    
+    public SmsDispatcher(SmsGateway gateway,
+                         SmsDeadLetterRepository deadLetterRepository,
+                         SmsProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.gateway = gateway;
+        this.deadLetterRepository = deadLetterRepository;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.rateLimiter = new TokenBucket(properties.getBurst(), properties.getRatePerSecond());
+        this.workers = Executors.newFixedThreadPool(properties.getWorkers(), new CustomizableThreadFactory("sms-"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("sms-retry-"));
+        this.sendTimer = Timer.builder("hospital.sms.send.duration")
+                .description("Time for the SMS provider to accept a message")
+                .register(meterRegistry);
+        this.retried = Counter.builder("hospital.sms.retries")
+                .description("SMS sends scheduled for retry")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("hospital.sms.dead-lettered")
+                .description("SMS messages given up on and stored as dead letters")
+                .register(meterRegistry);
+        Gauge.builder("hospital.sms.queue.size", queue, BlockingQueue::size)
+                .description("SMS messages waiting to be sent")
+                .register(meterRegistry);
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            workers.execute(this::work);
+        }
+        log.info("SMS dispatcher started: {} workers, queue capacity {}, {} messages/s",
+                properties.getWorkers(), properties.getQueueCapacity(), properties.getRatePerSecond());
+    }
+    
+    /**
+     * Queue a message for delivery without waiting for the provider
+     *
+     * @return false if the queue was full and the message was dead-lettered instead
+     */
+    public boolean submit(SmsMessage message) {
+        if (running && queue.offer(new Delivery(message, 0))) {
+            return true;
+        }
+        log.warn("SMS queue full, dead-lettering message to {}", message.to());
+        deadLetter(message, 0, "Dispatch queue full");
+        return false;
+    }
+    
+    public int getQueueSize() {
+        return queue.size();
+    }
+    
+    private void work() {
+        while (running || !queue.isEmpty()) {
+            Delivery delivery;
+            try {
+                delivery = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (delivery != null) {
+                awaitRate();
+                deliver(delivery);
+            }
+        }
+    }
+    
+    private void awaitRate() {
+        long waitNanos;
+        while ((waitNanos = rateLimiter.tryAcquire()) > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+    
+    private void deliver(Delivery delivery) {
+        int attempt = delivery.attempts() + 1;
+        try {
+            String messageId = sendTimer.recordCallable(() -> gateway.send(delivery.message()));
+            log.info("SMS sent to {} with id {}", delivery.message().to(), messageId);
+        } catch (SmsGatewayException e) {
+            handleFailure(delivery.message(), attempt, e.getMessage(), e.isRetryable());
+        } catch (Exception e) {
+            handleFailure(delivery.message(), attempt, e.toString(), true);
+        }
+    }
+    
+    private void handleFailure(SmsMessage message, int attempts, String error, boolean retryable) {
+        if (!retryable || attempts >= properties.getMaxAttempts() || !running) {
+            log.error("Giving up on SMS to {} after {} attempt(s): {}", message.to(), attempts, error);
+            deadLetter(message, attempts, error);
+            return;
+        }
+        long delayMillis = backoffMillis(attempts);
+        log.warn("SMS to {} failed (attempt {}), retrying in {} ms: {}", message.to(), attempts, delayMillis, error);
+        retried.increment();
+        Delivery retry = new Delivery(message, attempts);
+        pendingRetries.add(retry);
+        try {
+            retryScheduler.schedule(() -> requeue(retry), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            pendingRetries.remove(retry);
+            deadLetter(message, attempts, error);
+        }
+    }
+    
+    /**
+     * Exponential backoff with "equal jitter", so messages failing together do not retry together
+     */
+    private long backoffMillis(int attempts) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long max = properties.getMaxBackoff().toMillis();
+        long delay = Math.min(max, initial << Math.min(attempts - 1, 30));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+    
+    private void requeue(Delivery delivery) {
+        if (pendingRetries.remove(delivery) && !queue.offer(delivery)) {
+            deadLetter(delivery.message(), delivery.attempts(), "Dispatch queue full on retry");
+        }
+    }
+    
+    private void deadLetter(SmsMessage message, int attempts, String error) {
+        deadLettered.increment();
+        try {
+            deadLetterRepository.save(SmsDeadLetter.builder()
+                    .recipient(message.to())
+                    .body(message.body())
+                    .attempts(attempts)
+                    .lastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error)
+                    .failedAt(LocalDateTime.now())
+                    .build());
+        } catch (DataAccessException e) {
+            log.error("Could not store dead letter for SMS to {}: {}", message.to(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Stop accepting messages, give the workers a bounded time to drain the queue, then
+     * dead-letter whatever is left, including retries that were still waiting
+     */
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        retryScheduler.shutdownNow();
+        List<Delivery> unsent = new ArrayList<>();
+        queue.drainTo(unsent);
+        synchronized (pendingRetries) {
+            unsent.addAll(pendingRetries);
+            pendingRetries.clear();
+        }
+        unsent.forEach(delivery -> deadLetter(delivery.message(), delivery.attempts(), "Not sent before shutdown"));
+        if (!unsent.isEmpty()) {
+            log.warn("SMS dispatcher stopped with {} unsent messages, stored as dead letters", unsent.size());
+        }
+    }
+    
+    private record Delivery(SmsMessage message, int attempts) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.hospital.notification;
+
+/**
+ * Provider-neutral SMS sending, implemented by the Twilio client and by a local stub
+ * for tests and load runs (hospital.notification.sms.gateway)
+ */
+public interface SmsGateway {
+    
+    /**
+     * Send one message, blocking until the provider accepts it
+     *
+     * @return the provider's message id
+     * @throws SmsGatewayException if the provider rejects the message or cannot be reached
+     */
+    String send(SmsMessage message);
+}
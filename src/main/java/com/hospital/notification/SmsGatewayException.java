@@ -0,0 +1,20 @@
+package com.hospital.notification;
+
+/**
+ * Exception thrown when an SMS cannot be handed to the provider.
+ * Retryable failures (throttling, timeouts, provider errors) are retried with backoff;
+ * the others (e.g. an invalid number) go straight to the dead-letter store.
+ */
+public class SmsGatewayException extends RuntimeException {
+    
+    private final boolean retryable;
+    
+    public SmsGatewayException(String message, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+    
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,7 @@
+package com.hospital.notification;
+
+/**
+ * Outbound SMS: recipient phone number and text
+ */
+public record SmsMessage(String to, String body) {
+}
@@ -0,0 +1,47 @@
+package com.hospital.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local SMS gateway that only logs the message, for tests and load runs.
+ * An optional latency simulates a slow provider.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "hospital.notification.sms.gateway", havingValue = "stub")
+public class StubSmsGateway implements SmsGateway {
+    
+    private final long latencyMillis;
+    private final AtomicLong sent = new AtomicLong();
+    
+    public StubSmsGateway(@Value("${hospital.notification.sms.stub-latency-ms:0}") long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        log.info("Using stub SMS gateway (latency {} ms), no messages will be delivered", latencyMillis);
+    }
+    
+    @Override
+    public String send(SmsMessage message) {
+        if (latencyMillis > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SmsGatewayException("Interrupted", true, e);
+            }
+        }
+        sent.incrementAndGet();
+        log.debug("Stub SMS to {}: {}", message.to(), message.body());
+        return "stub-" + UUID.randomUUID();
+    }
+    
+    public long getSentCount() {
+        return sent.get();
+    }
+}
@@ -0,0 +1,54 @@
+package com.hospital.notification;
+
+import com.twilio.exception.ApiConnectionException;
+import com.twilio.exception.ApiException;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * SMS gateway backed by Twilio.
+ * The REST client (and its pooled HTTP connections) is created once and shared by all
+ * dispatcher workers.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "hospital.notification.sms.gateway", havingValue = "twilio", matchIfMissing = true)
+public class TwilioSmsGateway implements SmsGateway {
+    
+    private final TwilioRestClient client;
+    private final PhoneNumber from;
+    
+    public TwilioSmsGateway(@Value("${twilio.account-sid}") String accountSid,
+                            @Value("${twilio.auth-token}") String authToken,
+                            @Value("${twilio.phone-number}") String phoneNumber) {
+        this.client = new TwilioRestClient.Builder(accountSid, authToken).build();
+        this.from = new PhoneNumber(phoneNumber);
+        log.info("Twilio SMS gateway initialized for sender {}", phoneNumber);
+    }
+    
+    @Override
+    public String send(SmsMessage message) {
+        try {
+            return Message.creator(new PhoneNumber(message.to()), from, message.body())
+                    .create(client)
+                    .getSid();
+        } catch (ApiConnectionException e) {
+            throw new SmsGatewayException("Twilio unreachable: " + e.getMessage(), true, e);
+        } catch (ApiException e) {
+            throw new SmsGatewayException("Twilio rejected the message: " + e.getMessage(),
+                    isRetryable(e.getStatusCode()), e);
+        }
+    }
+    
+    /**
+     * Throttling (429) and server errors are transient; other client errors will fail again
+     */
+    private static boolean isRetryable(Integer status) {
+        return status == null || status == 429 || status >= 500;
+    }
+}
@@ -0,0 +1,38 @@
+package com.hospital.outbox;
+
+import com.hospital.entity.OutboxEvent;
+import com.hospital.service.CacheManagerUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts the appointment from the cache again once its change is committed.
+ * A read that loaded the old row just before commit can store it after the service's own
+ * eviction; this later eviction removes such a stale entry.
+ */
+@Component
+@RequiredArgsConstructor
+public class AppointmentCacheHandler implements OutboxEventHandler {
+    
+    private final CacheManager cacheManager;
+    
+    @Override
+    public String getName() {
+        return "appointment-cache";
+    }
+    
+    @Override
+    public boolean supports(OutboxEvent event) {
+        return AppointmentEvent.AGGREGATE_TYPE.equals(event.getAggregateType());
+    }
+    
+    @Override
+    public void handle(OutboxEvent event) {
+        Cache cache = cacheManager.getCache(CacheManagerUtil.APPOINTMENT_CACHE);
+        if (cache != null) {
+            cache.evict(event.getAggregateId());
+        }
+    }
+}
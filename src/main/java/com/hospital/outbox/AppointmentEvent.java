@@ -0,0 +1,34 @@
+package com.hospital.outbox;
+
+import com.hospital.entity.Appointment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox payload for appointment changes, carrying what the handlers need so they do not
+ * have to read the appointment back
+ */
+public record AppointmentEvent(Long appointmentId,
+                               Long patientId,
+                               Long doctorId,
+                               String patientPhone,
+                               String doctorName,
+                               LocalDateTime appointmentDateTime,
+                               String status) {
+    
+    public static final String AGGREGATE_TYPE = "Appointment";
+    public static final String BOOKED = "AppointmentBooked";
+    public static final String CANCELLED = "AppointmentCancelled";
+    public static final String STATUS_CHANGED = "AppointmentStatusChanged";
+    
+    public static AppointmentEvent of(Appointment appointment) {
+        return new AppointmentEvent(
+                appointment.getId(),
+                appointment.getPatient().getId(),
+                appointment.getDoctor().getId(),
+                appointment.getPatient().getPhone(),
+                appointment.getDoctor().getFirstName() + " " + appointment.getDoctor().getLastName(),
+                appointment.getAppointmentDateTime(),
+                appointment.getStatus().toString());
+    }
+}
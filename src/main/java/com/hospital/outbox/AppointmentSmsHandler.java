@@ -0,0 +1,133 @@
+package com.hospital.outbox;
+
+import com.hospital.entity.OutboxEvent;
+import com.hospital.repository.OutboxEventRepository;
+import com.hospital.service.SmsNotificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sends the booking confirmation and cancellation SMS for committed appointment changes.
+ * Changes to the same appointment are coalesced while their outbox events are still pending,
+ * so nothing is lost if the node stops: each event is deferred until its window has elapsed,
+ * and an event with a newer one for the same appointment completes without sending, leaving
+ * the newest to send the final state. A booking cancelled within its window sends nothing.
+ * Superseded events are marked, so the newest can tell which earlier ones it stands for.
+ */
+@Slf4j
+@Component
+public class AppointmentSmsHandler implements OutboxEventHandler {
+    
+    private static final String NAME = "appointment-sms";
+    private static final String SUPERSEDED = NAME + ":superseded";
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("EEE d MMM yyyy 'at' HH:mm");
+    
+    private final OutboxService outboxService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final SmsNotificationService smsNotificationService;
+    private final Duration window;
+    private final Counter superseded;
+    private final Counter withdrawn;
+    
+    public AppointmentSmsHandler(OutboxService outboxService,
+                                 OutboxEventRepository outboxEventRepository,
+                                 SmsNotificationService smsNotificationService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${hospital.notification.coalescing.window-seconds:60}") long windowSeconds) {
+        this.outboxService = outboxService;
+        this.outboxEventRepository = outboxEventRepository;
+        this.smsNotificationService = smsNotificationService;
+        this.window = Duration.ofSeconds(windowSeconds);
+        this.superseded = coalescedCounter(meterRegistry, "superseded");
+        this.withdrawn = coalescedCounter(meterRegistry, "withdrawn");
+    }
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    @Override
+    public boolean supports(OutboxEvent event) {
+        return AppointmentEvent.AGGREGATE_TYPE.equals(event.getAggregateType())
+                && (AppointmentEvent.BOOKED.equals(event.getEventType())
+                || AppointmentEvent.CANCELLED.equals(event.getEventType()));
+    }
+    
+    @Override
+    public void handle(OutboxEvent event) throws Exception {
+        AppointmentEvent appointment = outboxService.readPayload(event, AppointmentEvent.class);
+        if (!StringUtils.hasText(appointment.patientPhone())) {
+            return;
+        }
+        LocalDateTime windowEnd = event.getCreatedAt().plus(window);
+        if (LocalDateTime.now().isBefore(windowEnd)) {
+            throw new HandlingDeferredException("Coalescing window still open", windowEnd);
+        }
+        
+        List<OutboxEvent> history = outboxEventRepository
+                .findByAggregateTypeAndAggregateIdOrderByIdAsc(event.getAggregateType(), event.getAggregateId())
+                .stream()
+                .filter(this::supports)
+                .toList();
+        if (history.stream().anyMatch(other -> other.getId() > event.getId())) {
+            event.getCompletedHandlers().add(SUPERSEDED);
+            superseded.increment();
+            log.debug("Appointment {} changed again, event {} sends nothing", event.getAggregateId(), event.getId());
+            return;
+        }
+        
+        if (AppointmentEvent.CANCELLED.equals(event.getEventType())
+                && AppointmentEvent.BOOKED.equals(firstUnsent(history, event).getEventType())) {
+            withdrawn.increment();
+            log.debug("Appointment {} booked and cancelled within the window, nothing sent", event.getAggregateId());
+            return;
+        }
+        
+        if (AppointmentEvent.BOOKED.equals(event.getEventType())) {
+            smsNotificationService.sendAppointmentConfirmation(appointment.patientId(), appointment.appointmentId(),
+                    appointment.patientPhone(), appointment.doctorName(),
+                    appointment.appointmentDateTime().format(DATE_TIME_FORMAT));
+        } else {
+            smsNotificationService.sendAppointmentCancellation(appointment.patientId(), appointment.appointmentId(),
+                    appointment.patientPhone(), appointment.doctorName());
+        }
+    }
+    
+    /**
+     * The oldest event this one stands for: walking back from it, every earlier event that was
+     * superseded or has not been handled yet (and will be superseded), up to the last one sent
+     */
+    private OutboxEvent firstUnsent(List<OutboxEvent> history, OutboxEvent latest) {
+        OutboxEvent first = latest;
+        for (int i = history.size() - 1; i >= 0; i--) {
+            OutboxEvent older = history.get(i);
+            if (older.getId() >= latest.getId()) {
+                continue;
+            }
+            Set<String> completed = older.getCompletedHandlers();
+            if (completed.contains(NAME) && !completed.contains(SUPERSEDED)) {
+                break;
+            }
+            first = older;
+        }
+        return first;
+    }
+    
+    private static Counter coalescedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("hospital.notification.coalesced")
+                .description("Notifications not sent because they were merged or redundant")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,22 @@
+package com.hospital.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * Thrown by a handler that cannot decide yet what to do with an event. The handler is not
+ * recorded as completed and runs again at {@code retryAt}; unlike a failure, this does not
+ * count as an attempt.
+ */
+public class HandlingDeferredException extends Exception {
+    
+    private final LocalDateTime retryAt;
+    
+    public HandlingDeferredException(String message, LocalDateTime retryAt) {
+        super(message);
+        this.retryAt = retryAt;
+    }
+    
+    public LocalDateTime getRetryAt() {
+        return retryAt;
+    }
+}
@@ -0,0 +1,26 @@
+package com.hospital.outbox;
+
+import com.hospital.entity.OutboxEvent;
+
+/**
+ * Consumer of outbox events.
+ * Delivery is at-least-once: an event is retried until every supporting handler has succeeded,
+ * and a handler can see an event again if the node stops between handling it and committing,
+ * so handlers must tolerate duplicates.
+ */
+public interface OutboxEventHandler {
+    
+    /**
+     * Name recorded once this handler has processed an event; must stay stable across releases
+     */
+    String getName();
+    
+    boolean supports(OutboxEvent event);
+    
+    /**
+     * Process the event; any exception schedules a retry of this handler with backoff
+     *
+     * @throws HandlingDeferredException to run this handler again later without counting an attempt
+     */
+    void handle(OutboxEvent event) throws Exception;
+}
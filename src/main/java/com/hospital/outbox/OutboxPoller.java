@@ -0,0 +1,154 @@
+package com.hospital.outbox;
+
+import com.hospital.entity.OutboxEvent;
+import com.hospital.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Delivers outbox events to the registered handlers.
+ * Each batch is claimed with FOR UPDATE SKIP LOCKED inside one transaction, so several nodes
+ * can poll concurrently without processing the same event, and a node that dies mid-batch
+ * releases its rows to the others. An event is marked processed once every supporting handler
+ * has succeeded; failed handlers are retried with exponential backoff, and after maxAttempts
+ * the event is marked FAILED for inspection. A handler may also defer an event, which keeps it
+ * pending until the requested time without counting an attempt. Events are delivered roughly in id order, with
+ * no ordering guarantee across nodes.
+ */
+@Slf4j
+@Component
+public class OutboxPoller {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+    
+    public OutboxPoller(OutboxEventRepository outboxEventRepository,
+                        List<OutboxEventHandler> handlers,
+                        TransactionTemplate transactionTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${hospital.outbox.batch-size:100}") int batchSize,
+                        @Value("${hospital.outbox.max-batches-per-poll:10}") int maxBatchesPerPoll,
+                        @Value("${hospital.outbox.max-attempts:10}") int maxAttempts,
+                        @Value("${hospital.outbox.initial-backoff-ms:1000}") long initialBackoffMillis,
+                        @Value("${hospital.outbox.max-backoff-ms:300000}") long maxBackoffMillis,
+                        @Value("${hospital.outbox.retention-hours:168}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.handlers = handlers;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMillis);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMillis);
+        this.retention = Duration.ofHours(retentionHours);
+        log.info("Outbox handlers: {}", handlers.stream().map(OutboxEventHandler::getName).toList());
+    }
+    
+    /**
+     * Process due events, continuing with further batches while they come back full
+     */
+    @Scheduled(fixedDelayString = "${hospital.outbox.poll-interval-ms:200}")
+    public void poll() {
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            Integer processed = transactionTemplate.execute(status -> processBatch());
+            if (processed == null || processed < batchSize) {
+                return;
+            }
+        }
+    }
+    
+    int processBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.lockDueEvents(now, batchSize);
+        for (OutboxEvent event : batch) {
+            dispatch(event, now);
+        }
+        return batch.size();
+    }
+    
+    private void dispatch(OutboxEvent event, LocalDateTime now) {
+        String error = null;
+        LocalDateTime deferredUntil = null;
+        for (OutboxEventHandler handler : handlers) {
+            if (!handler.supports(event) || event.getCompletedHandlers().contains(handler.getName())) {
+                continue;
+            }
+            try {
+                handler.handle(event);
+                event.getCompletedHandlers().add(handler.getName());
+                count(handler, "success");
+            } catch (HandlingDeferredException e) {
+                if (deferredUntil == null || e.getRetryAt().isBefore(deferredUntil)) {
+                    deferredUntil = e.getRetryAt();
+                }
+                count(handler, "deferred");
+                log.debug("Outbox handler {} deferred event {} until {}: {}",
+                        handler.getName(), event.getId(), e.getRetryAt(), e.getMessage());
+            } catch (Exception e) {
+                error = handler.getName() + ": " + e.getMessage();
+                count(handler, "failure");
+                log.warn("Outbox handler {} failed on event {} ({}): {}",
+                        handler.getName(), event.getId(), event.getEventType(), e.getMessage());
+            }
+        }
+        
+        if (error == null && deferredUntil != null) {
+            event.setNextAttemptAt(deferredUntil);
+            return;
+        }
+        if (error == null) {
+            event.setStatus(OutboxEvent.Status.PROCESSED);
+            event.setProcessedAt(now);
+            return;
+        }
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxEvent.Status.FAILED);
+            log.error("Outbox event {} ({}) failed after {} attempts", event.getId(), event.getEventType(), attempts);
+        } else {
+            event.setNextAttemptAt(now.plus(backoff(attempts)));
+        }
+    }
+    
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+    
+    private void count(OutboxEventHandler handler, String result) {
+        meterRegistry.counter("hospital.outbox.handled", "handler", handler.getName(), "result", result).increment();
+    }
+    
+    /**
+     * Delete events processed longer ago than the retention period
+     */
+    @Scheduled(initialDelayString = "${hospital.outbox.purge-interval-ms:3600000}",
+            fixedDelayString = "${hospital.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer purged = transactionTemplate.execute(status -> {
+            outboxEventRepository.deleteProcessedHandlerRecords(cutoff);
+            return outboxEventRepository.deleteProcessed(cutoff);
+        });
+        log.info("Purged {} processed outbox events", purged);
+    }
+}
@@ -0,0 +1,48 @@
+package com.hospital.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.entity.OutboxEvent;
+import com.hospital.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes domain events to the outbox table.
+ * Publishing requires the caller's transaction, so the event is committed or rolled back
+ * together with the change it describes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        OutboxEvent event = outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(write(payload))
+                .build());
+        log.debug("Published outbox event {} {} for {} {}", event.getId(), eventType, aggregateType, aggregateId);
+    }
+    
+    public <T> T readPayload(OutboxEvent event, Class<T> type) throws JsonProcessingException {
+        return objectMapper.readValue(event.getPayload(), type);
+    }
+    
+    private String write(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload cannot be serialized", e);
+        }
+    }
+}
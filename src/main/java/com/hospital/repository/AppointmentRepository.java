@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +21,24 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     
     Page<Appointment> findByDoctorId(Long doctorId, Pageable pageable);
     
+    @Query(value = "SELECT COUNT(*), SUM(hashtext(CAST(id AS text) || ':' || CAST(xmin AS text))) " +
+                   "FROM appointments WHERE doctor_id = :doctorId", nativeQuery = true)
+    List<Object[]> findDoctorVersionStampRow(Long doctorId);
+    
+    default VersionStamp findDoctorVersionStamp(Long doctorId) {
+        return VersionStamp.of(findDoctorVersionStampRow(doctorId));
+    }
+    
+    /**
+     * Appointments by id in one query, with the eager patient and doctor (and their users and
+     * roles) fetched in the same select
+     */
+    @Query("SELECT a FROM Appointment a " +
+           "JOIN FETCH a.patient p LEFT JOIN FETCH p.user pu LEFT JOIN FETCH pu.roles " +
+           "JOIN FETCH a.doctor d LEFT JOIN FETCH d.user du LEFT JOIN FETCH du.roles " +
+           "WHERE a.id IN :ids")
+    List<Appointment> findAllWithPartiesByIdIn(Collection<Long> ids);
+    
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT a FROM Appointment a WHERE a.id = :id")
     Optional<Appointment> findByIdWithLock(Long id);
@@ -39,4 +58,13 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
            "AND a.appointmentDateTime < :endOfDay " +
            "AND a.status != 'CANCELLED'")
     long countDailyAppointments(Long doctorId, LocalDateTime startOfDay, LocalDateTime endOfDay);
+    
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.patient JOIN FETCH a.doctor " +
+           "WHERE a.patient.id = :patientId " +
+           "AND a.appointmentDateTime >= :from " +
+           "AND (a.appointmentDateTime < :before " +
+           "OR (a.appointmentDateTime = :before AND a.id < :beforeId)) " +
+           "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<Appointment> findPatientTimeline(Long patientId, LocalDateTime from, LocalDateTime before, long beforeId,
+                                          Pageable pageable);
 }
@@ -5,15 +5,34 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     Optional<Doctor> findByEmail(String email);
+    boolean existsByEmail(String email);
     List<Doctor> findBySpecialization(String specialization);
     List<Doctor> findByDepartment(String department);
     
     @Query("SELECT d FROM Doctor d WHERE d.user.id = :userId")
     Optional<Doctor> findByUserId(Long userId);
+    
+    @Query("SELECT d.id FROM Doctor d WHERE d.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+    
+    /**
+     * Doctors by id in one query, with the eager user and its roles fetched in the same select
+     */
+    @Query("SELECT d FROM Doctor d LEFT JOIN FETCH d.user u LEFT JOIN FETCH u.roles WHERE d.id IN :ids")
+    List<Doctor> findAllWithUserByIdIn(Collection<Long> ids);
+    
+    @Query(value = "SELECT COUNT(*), SUM(hashtext(CAST(id AS text) || ':' || CAST(xmin AS text))) " +
+                   "FROM doctors", nativeQuery = true)
+    List<Object[]> findVersionStampRow();
+    
+    default VersionStamp findVersionStamp() {
+        return VersionStamp.of(findVersionStampRow());
+    }
 }
@@ -0,0 +1,28 @@
+package com.hospital.repository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the properties of a DTO to attribute paths of its entity for projected queries.
+ * Properties without an explicit path map to the entity attribute of the same name.
+ */
+public record DtoProjection<E, D>(Class<E> entityType, Class<D> dtoType, Map<String, String> paths) {
+    
+    public static <E, D> DtoProjection<E, D> of(Class<E> entityType, Class<D> dtoType) {
+        return new DtoProjection<>(entityType, dtoType, Map.of());
+    }
+    
+    /**
+     * Map a DTO property to a dotted entity path, e.g. patientId to patient.id
+     */
+    public DtoProjection<E, D> withPath(String property, String path) {
+        Map<String, String> copy = new HashMap<>(paths);
+        copy.put(property, path);
+        return new DtoProjection<>(entityType, dtoType, Map.copyOf(copy));
+    }
+    
+    public String pathOf(String property) {
+        return paths.getOrDefault(property, property);
+    }
+}
@@ -4,8 +4,10 @@ import com.hospital.entity.MedicalRecord;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -16,4 +18,12 @@ public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Lo
     List<MedicalRecord> findByPatientIdOrderByRecordedAtDesc(Long patientId);
     
     Page<MedicalRecord> findByDoctorId(Long doctorId, Pageable pageable);
+    
+    @Query("SELECT r FROM MedicalRecord r WHERE r.patient.id = :patientId " +
+           "AND r.recordedAt >= :from " +
+           "AND (r.recordedAt < :before " +
+           "OR (r.recordedAt = :before AND r.id < :beforeId)) " +
+           "ORDER BY r.recordedAt DESC, r.id DESC")
+    List<MedicalRecord> findPatientTimeline(Long patientId, LocalDateTime from, LocalDateTime before, long beforeId,
+                                            Pageable pageable);
 }
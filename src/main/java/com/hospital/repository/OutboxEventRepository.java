@@ -0,0 +1,35 @@
+package com.hospital.repository;
+
+import com.hospital.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    /**
+     * Lock the oldest due events; rows locked by another node are skipped rather than waited on
+     */
+    @Query(value = "SELECT * FROM outbox_events WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockDueEvents(LocalDateTime now, int limit);
+    
+    @Modifying
+    @Query(value = "DELETE FROM outbox_event_handlers h USING outbox_events e " +
+            "WHERE h.event_id = e.id AND e.status = 'PROCESSED' AND e.processed_at < :cutoff", nativeQuery = true)
+    int deleteProcessedHandlerRecords(LocalDateTime cutoff);
+    
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE status = 'PROCESSED' AND processed_at < :cutoff",
+            nativeQuery = true)
+    int deleteProcessed(LocalDateTime cutoff);
+    
+    List<OutboxEvent> findByAggregateTypeAndAggregateIdOrderByIdAsc(String aggregateType, Long aggregateId);
+    
+    long countByStatus(OutboxEvent.Status status);
+}
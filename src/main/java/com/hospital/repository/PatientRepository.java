@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,6 +14,22 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     Optional<Patient> findByEmail(String email);
     Optional<Patient> findByPhone(String phone);
     
+    /**
+     * Single existence probe for registration: returns "email" and/or "phone" for each taken value
+     */
+    @Query("SELECT CASE WHEN p.email = :email THEN 'email' ELSE 'phone' END FROM Patient p " +
+           "WHERE p.email = :email OR p.phone = :phone")
+    List<String> findTakenFields(String email, String phone);
+    
     @Query("SELECT p FROM Patient p WHERE p.user.id = :userId")
     Optional<Patient> findByUserId(Long userId);
+    
+    @Query("SELECT p.id FROM Patient p WHERE p.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+    
+    /**
+     * Patients by id in one query, with the eager user and its roles fetched in the same select
+     */
+    @Query("SELECT p FROM Patient p LEFT JOIN FETCH p.user u LEFT JOIN FETCH u.roles WHERE p.id IN :ids")
+    List<Patient> findAllWithUserByIdIn(Collection<Long> ids);
 }
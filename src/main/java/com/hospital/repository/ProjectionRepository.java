@@ -0,0 +1,100 @@
+package com.hospital.repository;
+
+import com.hospital.util.FieldSelection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paged queries that select only the requested DTO fields.
+ * The selected columns are read as tuples and copied into otherwise empty DTOs, so neither
+ * the unrequested columns nor the entities themselves are loaded.
+ */
+@Repository
+public class ProjectionRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * @param filters equality conditions by entity path, e.g. doctor.id
+     */
+    public <E, D> Page<D> findPage(DtoProjection<E, D> projection, FieldSelection fields,
+                                   Map<String, Object> filters, Pageable pageable) {
+        fields.validate(projection.dtoType());
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(projection.entityType());
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String field : fields.getNames()) {
+            selections.add(path(root, projection.pathOf(field)).alias(field));
+        }
+        query.multiselect(selections).where(predicates(cb, root, filters));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        List<D> content = typedQuery.getResultList().stream()
+                .map(tuple -> toDto(tuple, projection.dtoType(), fields))
+                .toList();
+        
+        if (pageable.isUnpaged() || (pageable.getOffset() == 0 && content.size() < pageable.getPageSize())) {
+            return new PageImpl<>(content, pageable, content.size());
+        }
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<E> countRoot = countQuery.from(projection.entityType());
+        countQuery.select(cb.count(countRoot)).where(predicates(cb, countRoot, filters));
+        return new PageImpl<>(content, pageable, entityManager.createQuery(countQuery).getSingleResult());
+    }
+    
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<?> root, Map<String, Object> filters) {
+        return filters.entrySet().stream()
+                .map(filter -> cb.equal(path(root, filter.getKey()), filter.getValue()))
+                .toArray(Predicate[]::new);
+    }
+    
+    private static Path<?> path(Root<?> root, String dottedPath) {
+        Path<?> path = root;
+        for (String attribute : dottedPath.split("\\.")) {
+            path = path.get(attribute);
+        }
+        return path;
+    }
+    
+    private static <D> D toDto(Tuple tuple, Class<D> dtoType, FieldSelection fields) {
+        D dto = BeanUtils.instantiateClass(dtoType);
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(dto);
+        wrapper.setConversionService(DefaultConversionService.getSharedInstance());
+        for (String field : fields.getNames()) {
+            Object value = tuple.get(field);
+            if (value != null) {
+                wrapper.setPropertyValue(field, value);
+            }
+        }
+        return dto;
+    }
+}
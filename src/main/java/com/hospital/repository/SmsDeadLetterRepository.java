@@ -0,0 +1,9 @@
+package com.hospital.repository;
+
+import com.hospital.entity.SmsDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SmsDeadLetterRepository extends JpaRepository<SmsDeadLetter, Long> {
+}
@@ -0,0 +1,22 @@
+package com.hospital.repository;
+
+import java.util.List;
+
+/**
+ * Row count and a fingerprint of the committed row versions of a set of rows.
+ * The fingerprint sums a hash of each row's id and xmin (the id of the transaction that wrote
+ * the row version), so any committed insert, update or delete in the set changes it, in
+ * whatever order transactions commit. A timestamp set at flush time, such as updated_at, does
+ * not: a transaction that flushed earlier but commits later leaves MAX(updated_at) unchanged.
+ */
+public record VersionStamp(long count, long fingerprint) {
+    
+    /**
+     * Stamp from the single row of a native {@code SELECT COUNT(*), SUM(...)} query
+     */
+    static VersionStamp of(List<Object[]> rows) {
+        Object[] row = rows.get(0);
+        long fingerprint = row[1] != null ? ((Number) row[1]).longValue() : 0;
+        return new VersionStamp(((Number) row[0]).longValue(), fingerprint);
+    }
+}
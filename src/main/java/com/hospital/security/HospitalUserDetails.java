@@ -0,0 +1,24 @@
+package com.hospital.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Authenticated user carrying the database id alongside the username and authorities
+ */
+public class HospitalUserDetails extends User {
+    
+    private final Long id;
+    
+    public HospitalUserDetails(Long id, String username, String password, boolean enabled,
+                               Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.id = id;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+}
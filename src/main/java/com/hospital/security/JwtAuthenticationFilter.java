@@ -1,5 +1,6 @@
 package com.hospital.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,6 +8,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -16,18 +19,25 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * JWT Authentication Filter
- * Validates JWT tokens on every request
+ * Verifies JWT tokens on every request (one parse, claims kept as a request attribute) and builds the authentication from the token's
+ * roles and user id claims, without a database lookup. Tokens issued without those claims
+ * fall back to loading the user; revocation-sensitive paths re-check the user through the
+ * short-lived {@link PrincipalCache}. Revoked tokens are checked through the
+ * {@link TokenRevocationService} Bloom filter, which only queries the database on a possible match.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
-    private final JwtTokenProvider jwtTokenProvider;
+    private final JwtTokenVerifier jwtTokenVerifier;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -36,18 +46,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = extractJwtFromRequest(request);
             
-            if (jwt != null && jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.getUsernameFromToken(jwt);
+            if (jwt != null) {
+                Claims claims = jwtTokenVerifier.verify(jwt);
+                request.setAttribute(JwtTokenVerifier.CLAIMS_ATTRIBUTE, claims);
                 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request));
+                if (tokenRevocationService.isRevoked(claims)) {
+                    log.debug("Rejected revoked token {} of user {}", claims.getId(), claims.getSubject());
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+                UserDetails userDetails = resolveUser(claims, request);
                 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                log.debug("Set user authentication for username: {}", username);
+                if (userDetails.isEnabled()) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(
+                                    userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(
+                            new WebAuthenticationDetailsSource().buildDetails(request));
+                    
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    log.debug("Set user authentication for username: {}", userDetails.getUsername());
+                }
             }
         } catch (Exception e) {
             log.error("Could not set user authentication: {}", e.getMessage());
@@ -56,6 +75,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    private UserDetails resolveUser(Claims claims, HttpServletRequest request) {
+        String username = claims.getSubject();
+        if (principalCache.requiresVerification(request)) {
+            return principalCache.getUser(username);
+        }
+        
+        List<?> roles = claims.get(JwtTokenProvider.ROLES_CLAIM, List.class);
+        if (roles == null) {
+            // Token issued before roles were embedded
+            return userDetailsService.loadUserByUsername(username);
+        }
+        List<GrantedAuthority> authorities = roles.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(JwtTokenProvider.ROLE_PREFIX + role))
+                .toList();
+        Number userId = claims.get(JwtTokenProvider.USER_ID_CLAIM, Number.class);
+        return new HospitalUserDetails(userId != null ? userId.longValue() : null, username, "", true, authorities);
+    }
+    
     private String extractJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         
@@ -3,32 +3,39 @@ package com.hospital.security;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * JWT Token Provider for handling token generation and validation
+ * Tokens carry the user's id and roles as claims, so requests can be authenticated
+ * from the verified token alone, and a unique id (jti) so they can be revoked
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class JwtTokenProvider {
     
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    public static final String ROLES_CLAIM = "roles";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_PREFIX = "ROLE_";
+    
+    private final JwtTokenVerifier jwtTokenVerifier;
     
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
     
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return jwtTokenVerifier.getSigningKey();
     }
     
     /**
@@ -40,8 +47,17 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
         
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith(ROLE_PREFIX))
+                .map(authority -> authority.substring(ROLE_PREFIX.length()))
+                .toList();
+        
         return Jwts.builder()
                 .setSubject(userDetails.getUsername())
+                .claim(ROLES_CLAIM, roles)
+                .claim(USER_ID_CLAIM, userDetails instanceof HospitalUserDetails user ? user.getId() : null)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(getSigningKey(), SignatureAlgorithm.HS512)
@@ -59,6 +75,7 @@ public class JwtTokenProvider {
         
         return Jwts.builder()
                 .setSubject(username)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(getSigningKey(), SignatureAlgorithm.HS512)
@@ -69,13 +86,7 @@ public class JwtTokenProvider {
      * Get username from JWT token
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith((SecretKey) getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.getSubject();
+        return jwtTokenVerifier.verify(token).getSubject();
     }
     
     /**
@@ -83,10 +94,7 @@ public class JwtTokenProvider {
      */
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith((SecretKey) getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            jwtTokenVerifier.verify(token);
             return true;
         } catch (Exception e) {
             log.error("JWT validation failed: {}", e.getMessage());
@@ -99,12 +107,7 @@ public class JwtTokenProvider {
      */
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith((SecretKey) getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            
+            Claims claims = jwtTokenVerifier.verify(token);
             return claims.getExpiration().before(new Date());
         } catch (Exception e) {
             log.error("Error checking token expiration: {}", e.getMessage());
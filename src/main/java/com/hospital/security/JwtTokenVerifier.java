@@ -0,0 +1,48 @@
+package com.hospital.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Verifies JWT tokens with a signing key and parser built once at startup.
+ * The parser is immutable and thread-safe, so each token costs exactly one parse and one
+ * signature check; callers keep the returned claims instead of parsing the token again.
+ */
+@Component
+public class JwtTokenVerifier {
+    
+    /**
+     * Request attribute holding the verified claims of the current request's token
+     */
+    public static final String CLAIMS_ATTRIBUTE = "com.hospital.security.JwtTokenVerifier.claims";
+    
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    
+    public JwtTokenVerifier(@Value("${jwt.secret}") String jwtSecret) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+    
+    /**
+     * Verify the signature and expiry of a token and return its claims
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or badly signed
+     */
+    public Claims verify(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+    
+    SecretKey getSigningKey() {
+        return signingKey;
+    }
+}
@@ -0,0 +1,72 @@
+package com.hospital.security;
+
+import com.hospital.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Credential verification on a dedicated, bounded worker pool.
+ * BCrypt is deliberately CPU-expensive; running it on request threads lets a login storm
+ * occupy every Tomcat thread. Here at most {@code threads} hashes run at once, a bounded
+ * queue absorbs bursts, and anything beyond that is rejected immediately with a retry hint
+ * instead of waiting, so the rest of the API keeps its threads and CPU.
+ */
+@Slf4j
+@Service
+public class LoginService {
+    
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    
+    public LoginService(AuthenticationManager authenticationManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${hospital.security.login.threads:0}") int threads,
+                        @Value("${hospital.security.login.queue-capacity:100}") int queueCapacity,
+                        @Value("${hospital.security.login.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.authenticationManager = authenticationManager;
+        this.retryAfterSeconds = retryAfterSeconds;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("login-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "login", List.of()).bindTo(meterRegistry);
+        log.info("Login verification pool: {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+    
+    /**
+     * Verify the credentials on the login pool
+     *
+     * @return the authenticated user, or a future failed with an AuthenticationException
+     * @throws ServiceOverloadedException if the pool and its queue are full
+     */
+    public CompletableFuture<Authentication> authenticate(String username, String password) {
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticationManager.authenticate(
+                    UsernamePasswordAuthenticationToken.unauthenticated(username, password)), executor);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceOverloadedException("Too many concurrent logins, please retry shortly",
+                    retryAfterSeconds);
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
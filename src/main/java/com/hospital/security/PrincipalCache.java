@@ -0,0 +1,69 @@
+package com.hospital.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Short-lived cache of users loaded from the database, for revocation-sensitive paths.
+ * Most requests are authenticated from the token claims alone; on the configured paths the
+ * user is re-checked against the database at most once per TTL, so disabling a user or
+ * removing a role takes effect there within seconds rather than at token expiry.
+ */
+@Component
+public class PrincipalCache {
+    
+    private final UserDetailsService userDetailsService;
+    private final RequestMatcher verifiedPaths;
+    private final Cache<String, UserDetails> users;
+    
+    public PrincipalCache(UserDetailsService userDetailsService,
+                          @Value("${hospital.security.principal-check.paths:/admin/**}") String[] paths,
+                          @Value("${hospital.security.principal-check.ttl-seconds:30}") long ttlSeconds,
+                          @Value("${hospital.security.principal-check.max-size:10000}") long maxSize) {
+        this.userDetailsService = userDetailsService;
+        List<RequestMatcher> matchers = Arrays.stream(paths)
+                .filter(path -> !path.isBlank())
+                .<RequestMatcher>map(path -> new AntPathRequestMatcher(path.trim()))
+                .toList();
+        this.verifiedPaths = matchers.isEmpty() ? request -> false : new OrRequestMatcher(matchers);
+        this.users = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+    
+    /**
+     * Whether requests to this path must re-check the user against the database
+     */
+    public boolean requiresVerification(HttpServletRequest request) {
+        return verifiedPaths.matches(request);
+    }
+    
+    /**
+     * The user as currently stored, loaded at most once per TTL
+     *
+     * @throws org.springframework.security.core.userdetails.UsernameNotFoundException if the user no longer exists
+     */
+    public UserDetails getUser(String username) {
+        return users.get(username, userDetailsService::loadUserByUsername);
+    }
+    
+    /**
+     * Drop a user so the next verified request reloads it
+     */
+    public void evict(String username) {
+        users.invalidate(username);
+    }
+}
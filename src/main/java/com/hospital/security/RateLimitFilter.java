@@ -0,0 +1,297 @@
+package com.hospital.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hospital.cache.RedisCircuitBreaker;
+import com.hospital.config.RateLimitProperties;
+import com.hospital.config.RateLimitProperties.RouteGroup;
+import com.hospital.exception.ErrorResponse;
+import com.hospital.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate Limit Filter
+ * Runs right after JWT authentication and applies a per-client token bucket for each
+ * configured route group, answering 429 with Retry-After when the bucket is empty.
+ * Buckets are lock-free and held in a bounded Caffeine map, so the check costs no lock and
+ * no remote call. Groups with a global limit additionally count requests per client and
+ * second in Redis; that check fails open while Redis is unavailable.
+ * Groups with a key body field (login) key anonymous clients by address and the submitted
+ * value of that field; the body is read ahead and replayed to the rest of the chain.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private static final String GLOBAL_KEY_PREFIX = "hospital:rate-limit:";
+    private static final String ANONYMOUS_PREFIX = "ip:";
+    
+    /** Bodies larger than this are not inspected for the key field */
+    private static final int MAX_KEYED_BODY_BYTES = 8 * 1024;
+    private static final int MAX_KEY_FIELD_LENGTH = 128;
+    
+    private final RateLimitProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final ObjectMapper objectMapper;
+    private final List<Route> routes;
+    private final Cache<String, TokenBucket> buckets;
+    
+    public RateLimitFilter(RateLimitProperties properties,
+                           StringRedisTemplate redisTemplate,
+                           RedisCircuitBreaker circuitBreaker,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.objectMapper = objectMapper;
+        this.routes = properties.getGroups().stream()
+                .map(group -> new Route(group, matcherFor(group), Counter.builder("hospital.rate-limit.rejected")
+                        .description("Requests rejected by the rate limiter")
+                        .tag("group", group.getName())
+                        .register(meterRegistry)))
+                .toList();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || routes.isEmpty();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Route route = findRoute(request);
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        RouteGroup group = route.group();
+        String client = clientKey(request);
+        if (StringUtils.hasText(group.getKeyBodyField()) && client.startsWith(ANONYMOUS_PREFIX)) {
+            ReadAheadRequest readAhead = new ReadAheadRequest(request, MAX_KEYED_BODY_BYTES);
+            client += ":" + bodyField(readAhead, group.getKeyBodyField());
+            request = readAhead;
+        }
+        String key = group.getName() + ":" + client;
+        long waitNanos = buckets.get(key, k -> new TokenBucket(group.getCapacity(), group.getRefillPerSecond()))
+                .tryAcquire();
+        if (waitNanos == 0 && group.getGlobalPerSecond() > 0) {
+            waitNanos = checkGlobalLimit(key, group.getGlobalPerSecond());
+        }
+        
+        if (waitNanos > 0) {
+            route.rejected().increment();
+            log.debug("Rate limited {} on {} {}", key, request.getMethod(), request.getRequestURI());
+            reject(request, response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+    
+    private Route findRoute(HttpServletRequest request) {
+        for (Route route : routes) {
+            if (route.matcher().matches(request)) {
+                return route;
+            }
+        }
+        return null;
+    }
+    
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return ANONYMOUS_PREFIX + request.getRemoteAddr();
+    }
+    
+    /**
+     * Normalized value of a top-level field of the JSON body, or empty if there is none
+     */
+    private String bodyField(ReadAheadRequest request, String field) {
+        if (!request.isComplete()) {
+            return "";
+        }
+        try {
+            JsonNode value = objectMapper.readTree(request.getHead()).path(field);
+            String text = value.isValueNode() ? value.asText().trim().toLowerCase() : "";
+            return text.length() > MAX_KEY_FIELD_LENGTH ? text.substring(0, MAX_KEY_FIELD_LENGTH) : text;
+        } catch (IOException e) {
+            // Malformed bodies are rejected by the endpoint itself
+            return "";
+        }
+    }
+    
+    /**
+     * Fixed one-second window counter in Redis shared by all nodes
+     *
+     * @return 0 if allowed, otherwise the nanoseconds until the next window
+     */
+    private long checkGlobalLimit(String key, long limitPerSecond) {
+        if (!circuitBreaker.allowRequest()) {
+            return 0;
+        }
+        long nowMillis = System.currentTimeMillis();
+        String windowKey = GLOBAL_KEY_PREFIX + key + ":" + nowMillis / 1000;
+        try {
+            Long count = redisTemplate.opsForValue().increment(windowKey);
+            if (count != null && count == 1) {
+                redisTemplate.expire(windowKey, Duration.ofSeconds(2));
+            }
+            circuitBreaker.recordSuccess();
+            if (count != null && count > limitPerSecond) {
+                return TimeUnit.MILLISECONDS.toNanos(1000 - nowMillis % 1000);
+            }
+        } catch (DataAccessException e) {
+            circuitBreaker.recordFailure(e);
+        }
+        return 0;
+    }
+    
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .message("Too many requests, retry after " + retryAfterSeconds + "s")
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .build();
+        
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+    
+    private static RequestMatcher matcherFor(RouteGroup group) {
+        String method = StringUtils.hasText(group.getMethod()) ? group.getMethod().toUpperCase() : null;
+        List<RequestMatcher> matchers = group.getPaths().stream()
+                .<RequestMatcher>map(path -> new AntPathRequestMatcher(path, method))
+                .toList();
+        return matchers.isEmpty() ? request -> false : new OrRequestMatcher(matchers);
+    }
+    
+    private record Route(RouteGroup group, RequestMatcher matcher, Counter rejected) {
+    }
+    
+    /**
+     * Request whose body has been read ahead up to a limit; the bytes read are replayed
+     * before the rest of the original stream
+     */
+    private static class ReadAheadRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] head;
+        private final boolean complete;
+        private final InputStream body;
+        private boolean finished;
+        
+        ReadAheadRequest(HttpServletRequest request, int limit) throws IOException {
+            super(request);
+            InputStream original = request.getInputStream();
+            this.head = original.readNBytes(limit + 1);
+            this.complete = head.length <= limit;
+            this.body = complete ? new ByteArrayInputStream(head)
+                    : new SequenceInputStream(new ByteArrayInputStream(head), original);
+        }
+        
+        byte[] getHead() {
+            return head;
+        }
+        
+        /**
+         * Whether the head is the whole body
+         */
+        boolean isComplete() {
+            return complete;
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            return new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    int b = body.read();
+                    finished = b < 0;
+                    return b;
+                }
+                
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int read = body.read(buffer, offset, length);
+                    finished = read < 0;
+                    return read;
+                }
+                
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Asynchronous reads are not supported");
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.hospital.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hospital.entity.RevokedToken;
+import com.hospital.repository.RevokedTokenRepository;
+import com.hospital.util.BloomFilter;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Revocation of JWT tokens by id (jti) before they expire.
+ * Revoked ids are stored in the revoked_tokens table; every node keeps a Bloom filter of them,
+ * so a request only queries the table when its token id is a possible match, which for a
+ * valid token happens at the filter's false positive rate.
+ * The filter is refreshed incrementally from the table, so a revocation made on another node
+ * takes effect here within the refresh interval. Bloom filters cannot drop entries, so the
+ * filter is periodically rebuilt from the unexpired revocations only.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+    
+    private static final String LOAD_QUERY =
+            "SELECT id, revoked_at FROM revoked_tokens WHERE expires_at > ? AND revoked_at > ?";
+    
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final Duration refreshOverlap;
+    
+    /**
+     * Token ids confirmed as revoked, so replaying a revoked token does not query the table each time
+     */
+    private final Cache<String, Boolean> confirmedRevoked = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+    
+    private volatile BloomFilter filter;
+    private volatile LocalDateTime watermark;
+    
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  @Value("${hospital.security.revocation.expected-revocations:100000}") long expectedRevocations,
+                                  @Value("${hospital.security.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  @Value("${hospital.security.revocation.refresh-overlap-seconds:60}") long refreshOverlapSeconds) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.refreshOverlap = Duration.ofSeconds(refreshOverlapSeconds);
+    }
+    
+    /**
+     * Revoke a token until its expiry. This node's filter and confirmed set only learn of the
+     * revocation once it commits, so a rollback cannot leave a token rejected here but valid
+     * on every other node.
+     */
+    @Transactional
+    public void revoke(Claims claims) {
+        String tokenId = claims.getId();
+        if (tokenId == null) {
+            throw new IllegalArgumentException("Token has no id and cannot be revoked");
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .id(tokenId)
+                .username(claims.getSubject())
+                .expiresAt(LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()))
+                .revokedAt(LocalDateTime.now())
+                .build());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markRevoked(tokenId);
+                }
+            });
+        } else {
+            markRevoked(tokenId);
+        }
+        log.info("Revoked token {} of user {}", tokenId, claims.getSubject());
+    }
+    
+    private void markRevoked(String tokenId) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(tokenId);
+        }
+        confirmedRevoked.put(tokenId, Boolean.TRUE);
+    }
+    
+    /**
+     * Whether the token has been revoked. Tokens without an id cannot be revoked.
+     */
+    public boolean isRevoked(Claims claims) {
+        String tokenId = claims.getId();
+        if (tokenId == null) {
+            return false;
+        }
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(tokenId)) {
+            return false;
+        }
+        if (confirmedRevoked.getIfPresent(tokenId) != null) {
+            return true;
+        }
+        boolean revoked = revokedTokenRepository.existsById(tokenId);
+        if (revoked) {
+            confirmedRevoked.put(tokenId, Boolean.TRUE);
+        }
+        return revoked;
+    }
+    
+    /**
+     * Build a fresh filter from the unexpired revocations and drop the expired rows
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${hospital.security.revocation.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${hospital.security.revocation.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = revokedTokenRepository.deleteExpired(now);
+        BloomFilter rebuilt = new BloomFilter(expectedRevocations, falsePositiveRate);
+        LocalDateTime loadedUpTo = load(rebuilt, LocalDateTime.of(1970, 1, 1, 0, 0), now);
+        BloomFilter previous = filter;
+        filter = rebuilt;
+        watermark = loadedUpTo;
+        // Revocations made on this node while loading went into the previous filter only
+        if (previous != null) {
+            refresh();
+        }
+        log.info("Token revocation filter rebuilt ({} expired revocations purged)", purged);
+    }
+    
+    /**
+     * Add revocations made on any node since the last refresh
+     */
+    @Scheduled(fixedDelayString = "${hospital.security.revocation.refresh-interval-ms:5000}")
+    public void refresh() {
+        BloomFilter current = filter;
+        LocalDateTime since = watermark;
+        if (current == null || since == null) {
+            return;
+        }
+        // Re-read an overlap window: rows committed late can carry an earlier revoked_at
+        LocalDateTime latest = load(current, since.minus(refreshOverlap), LocalDateTime.now());
+        if (latest.isAfter(since)) {
+            watermark = latest;
+        }
+    }
+    
+    private LocalDateTime load(BloomFilter target, LocalDateTime revokedAfter, LocalDateTime now) {
+        LocalDateTime[] latest = {revokedAfter};
+        jdbcTemplate.query(LOAD_QUERY, rs -> {
+            target.put(rs.getString(1));
+            LocalDateTime revokedAt = rs.getTimestamp(2).toLocalDateTime();
+            if (revokedAt.isAfter(latest[0])) {
+                latest[0] = revokedAt;
+            }
+        }, Timestamp.valueOf(now), Timestamp.valueOf(revokedAfter));
+        return latest[0];
+    }
+}
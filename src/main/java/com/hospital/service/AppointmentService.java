@@ -6,23 +6,37 @@ import com.hospital.entity.Doctor;
 import com.hospital.entity.Patient;
 import com.hospital.exception.AppointmentBookingException;
 import com.hospital.exception.ResourceNotFoundException;
+import com.hospital.outbox.AppointmentEvent;
+import com.hospital.outbox.OutboxService;
 import com.hospital.repository.AppointmentRepository;
 import com.hospital.repository.DoctorRepository;
+import com.hospital.repository.DtoProjection;
 import com.hospital.repository.PatientRepository;
+import com.hospital.repository.ProjectionRepository;
+import com.hospital.repository.VersionStamp;
+import com.hospital.util.FieldSelection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Service layer for Appointment management
  * Implements pessimistic locking to prevent overbooking
+ * Side effects of appointment changes (SMS, cache invalidation) are published to the
+ * outbox in the same transaction and run after commit by the OutboxPoller
  */
 @Slf4j
 @Service
@@ -30,9 +44,17 @@ import java.util.List;
 @Transactional
 public class AppointmentService {
     
+    private static final DtoProjection<Appointment, AppointmentDTO> PROJECTION =
+            DtoProjection.of(Appointment.class, AppointmentDTO.class)
+                    .withPath("patientId", "patient.id")
+                    .withPath("doctorId", "doctor.id");
+    
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
+    private final OutboxService outboxService;
+    private final ProjectionRepository projectionRepository;
+    private final BulkLookup bulkLookup;
     
     @Value("${hospital.appointment.max-slots-per-day:10}")
     private int maxSlotsPerDay;
@@ -41,6 +63,7 @@ public class AppointmentService {
      * Book an appointment with pessimistic locking
      * Prevents race conditions and overbooking
      */
+    @CacheEvict(value = CacheManagerUtil.APPOINTMENT_CACHE, key = "#result.id")
     public AppointmentDTO bookAppointment(AppointmentDTO appointmentDTO) {
         log.info("Booking appointment for patient ID: {}, doctor ID: {}", 
                  appointmentDTO.getPatientId(), appointmentDTO.getDoctorId());
@@ -110,6 +133,7 @@ public class AppointmentService {
                 .build();
         
         Appointment savedAppointment = appointmentRepository.save(appointment);
+        publishEvent(AppointmentEvent.BOOKED, savedAppointment);
         log.info("Appointment booked successfully with ID: {}", savedAppointment.getId());
         
         return convertToDTO(savedAppointment);
@@ -119,6 +143,7 @@ public class AppointmentService {
      * Get appointment by ID
      */
     @Transactional(readOnly = true)
+    @Cacheable(value = CacheManagerUtil.APPOINTMENT_CACHE, key = "#id", sync = true)
     public AppointmentDTO getAppointmentById(Long id) {
         log.info("Fetching appointment with ID: {}", id);
         
@@ -130,11 +155,26 @@ public class AppointmentService {
     }
     
     /**
-     * Get all appointments with pagination
+     * Get appointments by IDs in one query per chunk, serving cached ones from the local cache;
+     * unknown IDs are left out
+     */
+    @Transactional(readOnly = true)
+    public List<AppointmentDTO> getAppointmentsByIds(Collection<Long> ids) {
+        log.info("Fetching {} appointments by ID", ids.size());
+        return bulkLookup.findAll(CacheManagerUtil.APPOINTMENT_CACHE, ids,
+                chunk -> appointmentRepository.findAllWithPartiesByIdIn(chunk).stream().map(this::convertToDTO).toList(),
+                AppointmentDTO::getId);
+    }
+    
+    /**
+     * Get all appointments with pagination, reading only the selected fields
      */
     @Transactional(readOnly = true)
-    public Page<AppointmentDTO> getAllAppointments(Pageable pageable) {
+    public Page<AppointmentDTO> getAllAppointments(Pageable pageable, FieldSelection fields) {
         log.info("Fetching all appointments with pagination");
+        if (!fields.isAll()) {
+            return projectionRepository.findPage(PROJECTION, fields, Map.of(), pageable);
+        }
         return appointmentRepository.findAll(pageable).map(this::convertToDTO);
     }
     
@@ -142,7 +182,7 @@ public class AppointmentService {
      * Get patient's appointments with pagination
      */
     @Transactional(readOnly = true)
-    public Page<AppointmentDTO> getPatientAppointments(Long patientId, Pageable pageable) {
+    public Page<AppointmentDTO> getPatientAppointments(Long patientId, Pageable pageable, FieldSelection fields) {
         log.info("Fetching appointments for patient ID: {}", patientId);
         
         // Verify patient exists
@@ -150,6 +190,9 @@ public class AppointmentService {
             throw new ResourceNotFoundException("Patient not found with ID: " + patientId);
         }
         
+        if (!fields.isAll()) {
+            return projectionRepository.findPage(PROJECTION, fields, Map.of("patient.id", patientId), pageable);
+        }
         return appointmentRepository.findByPatientId(patientId, pageable)
                 .map(this::convertToDTO);
     }
@@ -158,7 +201,7 @@ public class AppointmentService {
      * Get doctor's appointments with pagination
      */
     @Transactional(readOnly = true)
-    public Page<AppointmentDTO> getDoctorAppointments(Long doctorId, Pageable pageable) {
+    public Page<AppointmentDTO> getDoctorAppointments(Long doctorId, Pageable pageable, FieldSelection fields) {
         log.info("Fetching appointments for doctor ID: {}", doctorId);
         
         // Verify doctor exists
@@ -166,13 +209,39 @@ public class AppointmentService {
             throw new ResourceNotFoundException("Doctor not found with ID: " + doctorId);
         }
         
+        if (!fields.isAll()) {
+            return projectionRepository.findPage(PROJECTION, fields, Map.of("doctor.id", doctorId), pageable);
+        }
         return appointmentRepository.findByDoctorId(doctorId, pageable)
                 .map(this::convertToDTO);
     }
     
+    /**
+     * Count and last modification of a doctor's appointments, for conditional requests
+     */
+    @Transactional(readOnly = true)
+    public VersionStamp getDoctorAppointmentsVersion(Long doctorId) {
+        return appointmentRepository.findDoctorVersionStamp(doctorId);
+    }
+    
+    /**
+     * Get a patient's appointments in a time window, newest first (ties by descending id),
+     * limited to the given size. Appointments at exactly {@code before} are included when their
+     * id is below {@code beforeId}. Patient and doctor are fetched in the same query.
+     */
+    @Transactional(readOnly = true)
+    public List<AppointmentDTO> getPatientTimeline(Long patientId, LocalDateTime from,
+                                                   LocalDateTime before, long beforeId, int limit) {
+        return appointmentRepository.findPatientTimeline(patientId, from, before, beforeId, PageRequest.of(0, limit))
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
     /**
      * Update appointment status
      */
+    @CacheEvict(value = CacheManagerUtil.APPOINTMENT_CACHE, key = "#id")
     public AppointmentDTO updateAppointmentStatus(Long id, String newStatus) {
         log.info("Updating appointment ID: {} status to: {}", id, newStatus);
         
@@ -189,6 +258,8 @@ public class AppointmentService {
         }
         
         Appointment updatedAppointment = appointmentRepository.save(appointment);
+        publishEvent(updatedAppointment.getStatus() == Appointment.AppointmentStatus.CANCELLED
+                ? AppointmentEvent.CANCELLED : AppointmentEvent.STATUS_CHANGED, updatedAppointment);
         log.info("Appointment status updated successfully");
         
         return convertToDTO(updatedAppointment);
@@ -197,6 +268,7 @@ public class AppointmentService {
     /**
      * Cancel appointment
      */
+    @CacheEvict(value = CacheManagerUtil.APPOINTMENT_CACHE, key = "#id")
     public AppointmentDTO cancelAppointment(Long id) {
         log.info("Cancelling appointment with ID: {}", id);
         
@@ -210,12 +282,18 @@ public class AppointmentService {
         
         appointment.setStatus(Appointment.AppointmentStatus.CANCELLED);
         Appointment cancelledAppointment = appointmentRepository.save(appointment);
+        publishEvent(AppointmentEvent.CANCELLED, cancelledAppointment);
         
         log.info("Appointment cancelled successfully with ID: {}", id);
         return convertToDTO(cancelledAppointment);
     }
     
-    // Helper method
+    // Helper methods
+    private void publishEvent(String eventType, Appointment appointment) {
+        outboxService.publish(AppointmentEvent.AGGREGATE_TYPE, appointment.getId(), eventType,
+                AppointmentEvent.of(appointment));
+    }
+    
     private AppointmentDTO convertToDTO(Appointment appointment) {
         return AppointmentDTO.builder()
                 .id(appointment.getId())
@@ -0,0 +1,97 @@
+package com.hospital.service;
+
+import com.hospital.cache.TwoTierCache;
+import com.hospital.exception.BulkLookupLimitException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Lookup of many entities by id for the bulk get endpoints.
+ * Ids already in this node's L1 cache are served from it; the rest are read with one IN-list
+ * query per chunk of {@code chunk-size} ids and put into L1, so a list of N ids costs
+ * ceil(misses / chunk-size) queries instead of N. Redis is not consulted per id, since that
+ * would cost one round trip per miss, more than the query the misses are batched into.
+ */
+@Slf4j
+@Component
+public class BulkLookup {
+    
+    private final CacheManager cacheManager;
+    private final int maxIds;
+    private final int chunkSize;
+    
+    public BulkLookup(CacheManager cacheManager,
+                      @Value("${hospital.bulk-lookup.max-ids:10000}") int maxIds,
+                      @Value("${hospital.bulk-lookup.chunk-size:1000}") int chunkSize) {
+        this.cacheManager = cacheManager;
+        this.maxIds = maxIds;
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * Find the entities with the given ids, in the order of the ids; unknown ids are left out
+     *
+     * @param loader loads the DTOs of a chunk of ids in one query
+     * @param idOf   the id of a loaded DTO
+     * @throws BulkLookupLimitException if more than {@code max-ids} distinct ids are requested
+     */
+    @SuppressWarnings("unchecked")
+    public <D> List<D> findAll(String cacheName, Collection<Long> ids,
+                               Function<List<Long>, List<D>> loader, Function<D, Long> idOf) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        if (distinct.size() > maxIds) {
+            throw new BulkLookupLimitException("At most " + maxIds + " ids can be looked up at once, got "
+                    + distinct.size());
+        }
+        
+        TwoTierCache cache = twoTierCache(cacheName);
+        Map<Long, D> found = new HashMap<>();
+        if (cache != null) {
+            cache.getAllLocal(distinct).forEach((id, value) -> found.put((Long) id, (D) value));
+        }
+        
+        List<Long> misses = distinct.stream().filter(id -> !found.containsKey(id)).toList();
+        for (int from = 0; from < misses.size(); from += chunkSize) {
+            for (D dto : loader.apply(misses.subList(from, Math.min(from + chunkSize, misses.size())))) {
+                Long id = idOf.apply(dto);
+                found.put(id, dto);
+                if (cache != null) {
+                    cache.putLocalOnly(id.toString(), dto);
+                }
+            }
+        }
+        log.debug("Bulk lookup of {} {}: {} cached, {} loaded in {} queries", distinct.size(), cacheName,
+                distinct.size() - misses.size(), misses.size(), (misses.size() + chunkSize - 1) / chunkSize);
+        
+        List<D> result = new ArrayList<>(found.size());
+        for (Long id : distinct) {
+            D dto = found.get(id);
+            if (dto != null) {
+                result.add(dto);
+            }
+        }
+        return result;
+    }
+    
+    private TwoTierCache twoTierCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        return cache instanceof TwoTierCache twoTierCache ? twoTierCache : null;
+    }
+}
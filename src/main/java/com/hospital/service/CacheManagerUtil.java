@@ -47,4 +47,12 @@ public class CacheManagerUtil {
     public void clearAppointmentCache() {
         // Cache will be cleared
     }
+    
+    /**
+     * Clear medical record cache
+     */
+    @CacheEvict(value = MEDICAL_RECORD_CACHE, allEntries = true)
+    public void clearMedicalRecordCache() {
+        // Cache will be cleared
+    }
 }
@@ -5,14 +5,27 @@ import com.hospital.entity.Doctor;
 import com.hospital.exception.DuplicateResourceException;
 import com.hospital.exception.ResourceNotFoundException;
 import com.hospital.repository.DoctorRepository;
+import com.hospital.repository.DtoProjection;
+import com.hospital.repository.ProjectionRepository;
+import com.hospital.repository.VersionStamp;
+import com.hospital.service.UniquenessGuard.Field;
+import com.hospital.util.FieldSelection;
+import com.hospital.util.UniqueViolations;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -24,21 +37,25 @@ import java.util.stream.Collectors;
 @Transactional
 public class DoctorService {
     
+    private static final DtoProjection<Doctor, DoctorDTO> PROJECTION = DtoProjection.of(Doctor.class, DoctorDTO.class);
+    
     private final DoctorRepository doctorRepository;
+    private final ProjectionRepository projectionRepository;
+    private final BulkLookup bulkLookup;
+    private final ReferenceIdCache referenceIdCache;
+    private final UniquenessGuard uniquenessGuard;
     
     /**
      * Create a new doctor
      */
+    @CacheEvict(value = CacheManagerUtil.DOCTOR_CACHE, key = "#result.id")
     public DoctorDTO createDoctor(DoctorDTO doctorDTO) {
         log.info("Creating new doctor: {}", doctorDTO.getEmail());
         
-        // Check for duplicate email
-        if (doctorRepository.findByEmail(doctorDTO.getEmail()).isPresent()) {
-            throw new DuplicateResourceException("Doctor with email " + doctorDTO.getEmail() + " already exists");
-        }
+        checkDuplicateEmail(doctorDTO.getEmail());
         
         Doctor doctor = convertToEntity(doctorDTO);
-        Doctor savedDoctor = doctorRepository.save(doctor);
+        Doctor savedDoctor = saveUnique(doctor);
         
         log.info("Doctor created successfully with ID: {}", savedDoctor.getId());
         return convertToDTO(savedDoctor);
@@ -48,6 +65,7 @@ public class DoctorService {
      * Get doctor by ID
      */
     @Transactional(readOnly = true)
+    @Cacheable(value = CacheManagerUtil.DOCTOR_CACHE, key = "#id", sync = true)
     public DoctorDTO getDoctorById(Long id) {
         log.info("Fetching doctor with ID: {}", id);
         
@@ -58,14 +76,37 @@ public class DoctorService {
     }
     
     /**
-     * Get all doctors with pagination
+     * Get doctors by IDs in one query per chunk, serving cached ones from the local cache;
+     * unknown IDs are left out
+     */
+    @Transactional(readOnly = true)
+    public List<DoctorDTO> getDoctorsByIds(Collection<Long> ids) {
+        log.info("Fetching {} doctors by ID", ids.size());
+        return bulkLookup.findAll(CacheManagerUtil.DOCTOR_CACHE, ids,
+                chunk -> doctorRepository.findAllWithUserByIdIn(chunk).stream().map(this::convertToDTO).toList(),
+                DoctorDTO::getId);
+    }
+    
+    /**
+     * Get all doctors with pagination, reading only the selected fields
      */
     @Transactional(readOnly = true)
-    public Page<DoctorDTO> getAllDoctors(Pageable pageable) {
+    public Page<DoctorDTO> getAllDoctors(Pageable pageable, FieldSelection fields) {
         log.info("Fetching all doctors with pagination");
+        if (!fields.isAll()) {
+            return projectionRepository.findPage(PROJECTION, fields, Map.of(), pageable);
+        }
         return doctorRepository.findAll(pageable).map(this::convertToDTO);
     }
     
+    /**
+     * Count and last modification of all doctors, for conditional requests on the doctor list
+     */
+    @Transactional(readOnly = true)
+    public VersionStamp getDoctorsVersion() {
+        return doctorRepository.findVersionStamp();
+    }
+    
     /**
      * Get doctors by specialization
      */
@@ -93,12 +134,17 @@ public class DoctorService {
     /**
      * Update doctor information
      */
+    @CacheEvict(value = CacheManagerUtil.DOCTOR_CACHE, key = "#id")
     public DoctorDTO updateDoctor(Long id, DoctorDTO doctorDTO) {
         log.info("Updating doctor with ID: {}", id);
         
         Doctor doctor = doctorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + id));
         
+        if (!Objects.equals(doctor.getEmail(), doctorDTO.getEmail())) {
+            checkDuplicateEmail(doctorDTO.getEmail());
+        }
+        
         // Update fields
         doctor.setFirstName(doctorDTO.getFirstName());
         doctor.setLastName(doctorDTO.getLastName());
@@ -109,15 +155,21 @@ public class DoctorService {
         doctor.setDepartment(doctorDTO.getDepartment());
         doctor.setYearsOfExperience(doctorDTO.getYearsOfExperience());
         
-        Doctor updatedDoctor = doctorRepository.save(doctor);
+        Doctor updatedDoctor = saveUnique(doctor);
         log.info("Doctor updated successfully with ID: {}", id);
         
         return convertToDTO(updatedDoctor);
     }
     
     /**
-     * Delete doctor
+     * Delete doctor. Appointments and medical records are removed with it,
+     * so their caches are cleared as well.
      */
+    @Caching(evict = {
+            @CacheEvict(value = CacheManagerUtil.DOCTOR_CACHE, key = "#id"),
+            @CacheEvict(value = {CacheManagerUtil.APPOINTMENT_CACHE, CacheManagerUtil.MEDICAL_RECORD_CACHE},
+                    allEntries = true)
+    })
     public void deleteDoctor(Long id) {
         log.info("Deleting doctor with ID: {}", id);
         
@@ -125,6 +177,7 @@ public class DoctorService {
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + id));
         
         doctorRepository.delete(doctor);
+        referenceIdCache.evictDoctor(id);
         log.info("Doctor deleted successfully with ID: {}", id);
     }
     
@@ -143,6 +196,35 @@ public class DoctorService {
     }
     
     // Helper methods
+    
+    /**
+     * Reject a duplicate email, skipping the lookup when the Bloom filter says it is new
+     */
+    private void checkDuplicateEmail(String email) {
+        if (uniquenessGuard.mightExist(Field.DOCTOR_EMAIL, email) && doctorRepository.existsByEmail(email)) {
+            throw new DuplicateResourceException("Doctor with email " + email + " already exists");
+        }
+    }
+    
+    /**
+     * Save and flush so a unique constraint violation from a concurrent registration
+     * surfaces here and is reported as a duplicate; other integrity failures propagate as is
+     */
+    private Doctor saveUnique(Doctor doctor) {
+        Doctor saved;
+        try {
+            saved = doctorRepository.saveAndFlush(doctor);
+        } catch (DataIntegrityViolationException e) {
+            if (!Doctor.EMAIL_CONSTRAINT.equals(UniqueViolations.constraintName(e))) {
+                throw e;
+            }
+            throw new DuplicateResourceException("Doctor with email " + doctor.getEmail() + " already exists", e);
+        }
+        
+        uniquenessGuard.record(Field.DOCTOR_EMAIL, saved.getEmail());
+        return saved;
+    }
+    
     private DoctorDTO convertToDTO(Doctor doctor) {
         return DoctorDTO.builder()
                 .id(doctor.getId())
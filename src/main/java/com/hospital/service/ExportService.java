@@ -0,0 +1,240 @@
+package com.hospital.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.exception.ResourceNotFoundException;
+import com.hospital.exception.UnsupportedExportFormatException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming bulk export of whole entity sets for the data warehouse.
+ * Rows are read through a server-side cursor inside a read-only transaction and written
+ * straight to a gzip stream, so memory is constant and no count query is issued.
+ */
+@Slf4j
+@Service
+public class ExportService {
+    
+    public enum ExportEntity {
+        PATIENTS("patients", "SELECT id, first_name, last_name, email, phone, address, age, " +
+                "blood_type, gender, created_at, updated_at FROM patients"),
+        DOCTORS("doctors", "SELECT id, first_name, last_name, email, phone, specialization, " +
+                "license_number, department, years_of_experience, created_at, updated_at FROM doctors"),
+        APPOINTMENTS("appointments", "SELECT id, patient_id, doctor_id, appointment_date_time, status, " +
+                "reason, notes, created_at, updated_at FROM appointments"),
+        MEDICAL_RECORDS("medical-records", "SELECT id, patient_id, doctor_id, diagnosis, treatment, " +
+                "medications, notes, allergies, chronic_diseases, recorded_at, updated_at FROM medical_records");
+        
+        private final String path;
+        private final String query;
+        
+        ExportEntity(String path, String query) {
+            this.path = path;
+            this.query = query;
+        }
+        
+        public String getPath() {
+            return path;
+        }
+        
+        public static ExportEntity fromPath(String path) {
+            return Arrays.stream(values())
+                    .filter(entity -> entity.path.equalsIgnoreCase(path))
+                    .findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("Unknown export entity: " + path));
+        }
+    }
+    
+    public enum ExportFormat {
+        NDJSON("ndjson"),
+        CSV("csv");
+        
+        private final String extension;
+        
+        ExportFormat(String extension) {
+            this.extension = extension;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+        
+        public static ExportFormat fromName(String name) {
+            return Arrays.stream(values())
+                    .filter(format -> format.extension.equalsIgnoreCase(name))
+                    .findFirst()
+                    .orElseThrow(() -> new UnsupportedExportFormatException("Unsupported export format: " + name
+                            + " (supported: ndjson, csv)"));
+        }
+    }
+    
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    
+    public ExportService(DataSource dataSource,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${hospital.export.fetch-size:1000}") int fetchSize) {
+        // Postgres only streams with a cursor when fetch size is set and auto-commit is off
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Write every row of the entity set (optionally only rows updated since the given time)
+     * to the output stream as gzip-compressed NDJSON or CSV
+     */
+    public void export(ExportEntity entity, ExportFormat format, LocalDateTime since, OutputStream out)
+            throws IOException {
+        log.info("Exporting {} as {} (changed since: {})", entity.getPath(), format.getExtension(), since);
+        
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == ExportFormat.NDJSON ? new NdjsonRowWriter(writer) : new CsvRowWriter(writer);
+        
+        String sql = since != null ? entity.query + " WHERE updated_at >= ?" : entity.query;
+        Object[] args = since != null ? new Object[]{Timestamp.valueOf(since)} : new Object[0];
+        
+        long[] rows = {0};
+        try {
+            readOnlyTransaction.executeWithoutResult(status ->
+                    cursorJdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                        try {
+                            rowWriter.write(rs);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        rows[0]++;
+                    }, args));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        
+        rowWriter.finish();
+        writer.flush();
+        gzip.finish();
+        log.info("Exported {} {} rows", rows[0], entity.getPath());
+    }
+    
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+        
+        /**
+         * Write out anything still buffered; the caller flushes the underlying writer
+         */
+        default void finish() throws IOException {
+        }
+    }
+    
+    /**
+     * One generator for the whole export, separating rows with a newline; output is only
+     * flushed when the buffers fill up and once at the end, so gzip sees large blocks
+     */
+    private class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator json;
+        private boolean rowWritten;
+        
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.json = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                    .setRootValueSeparator(new SerializedString("\n"));
+        }
+        
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            ResultSetMetaData meta = rs.getMetaData();
+            json.writeStartObject();
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                json.writeFieldName(meta.getColumnLabel(i));
+                Object value = rs.getObject(i);
+                if (value instanceof Timestamp timestamp) {
+                    json.writeString(timestamp.toLocalDateTime().toString());
+                } else {
+                    json.writeObject(value);
+                }
+            }
+            json.writeEndObject();
+            rowWritten = true;
+        }
+        
+        @Override
+        public void finish() throws IOException {
+            if (rowWritten) {
+                // Terminate the last line too, as NDJSON expects
+                json.writeRaw('\n');
+            }
+            json.close();
+        }
+    }
+    
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private boolean headerWritten;
+        
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+        
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            ResultSetMetaData meta = rs.getMetaData();
+            if (!headerWritten) {
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    writeField(i, meta.getColumnLabel(i));
+                }
+                writer.write('\n');
+                headerWritten = true;
+            }
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                Object value = rs.getObject(i);
+                if (value instanceof Timestamp timestamp) {
+                    value = timestamp.toLocalDateTime();
+                }
+                writeField(i, value != null ? value.toString() : "");
+            }
+            writer.write('\n');
+        }
+        
+        private void writeField(int column, String value) throws IOException {
+            if (column > 1) {
+                writer.write(',');
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+    }
+}
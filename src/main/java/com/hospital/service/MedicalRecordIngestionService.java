@@ -0,0 +1,175 @@
+package com.hospital.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.dto.BulkImportResultDTO;
+import com.hospital.dto.MedicalRecordDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk ingestion of medical records from NDJSON batches (one record per line).
+ * Lines are parsed incrementally, validated against the reference id cache
+ * and inserted with JDBC batching, one transaction per chunk.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MedicalRecordIngestionService {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO medical_records (patient_id, doctor_id, diagnosis, treatment, medications, " +
+            "notes, allergies, chronic_diseases, recorded_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReferenceIdCache referenceIdCache;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${hospital.bulk.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${hospital.bulk.max-reported-errors:1000}")
+    private int maxReportedErrors;
+    
+    /**
+     * Ingest medical records from an NDJSON stream
+     */
+    public BulkImportResultDTO ingest(InputStream ndjson) throws IOException {
+        log.info("Starting bulk medical record ingestion");
+        
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        List<ParsedLine> chunk = new ArrayList<>(batchSize);
+        
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.setTotalLines(result.getTotalLines() + 1);
+                
+                try {
+                    MedicalRecordDTO record = objectMapper.readValue(line, MedicalRecordDTO.class);
+                    if (record.getPatientId() == null || record.getDoctorId() == null) {
+                        recordError(result, lineNumber, "patientId and doctorId are required");
+                        continue;
+                    }
+                    chunk.add(new ParsedLine(lineNumber, record));
+                } catch (JsonProcessingException e) {
+                    recordError(result, lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                
+                if (chunk.size() >= batchSize) {
+                    flush(chunk, result);
+                }
+            }
+        }
+        
+        flush(chunk, result);
+        
+        log.info("Bulk medical record ingestion finished: {} lines, {} imported, {} failed",
+                result.getTotalLines(), result.getImported(), result.getFailed());
+        return result;
+    }
+    
+    private void flush(List<ParsedLine> chunk, BulkImportResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        
+        Set<Long> patientIds = referenceIdCache.existingPatientIds(
+                chunk.stream().map(p -> p.record().getPatientId()).collect(Collectors.toSet()));
+        Set<Long> doctorIds = referenceIdCache.existingDoctorIds(
+                chunk.stream().map(p -> p.record().getDoctorId()).collect(Collectors.toSet()));
+        
+        List<ParsedLine> valid = new ArrayList<>(chunk.size());
+        for (ParsedLine parsed : chunk) {
+            if (!patientIds.contains(parsed.record().getPatientId())) {
+                recordError(result, parsed.line(),
+                        "Patient not found with ID: " + parsed.record().getPatientId());
+            } else if (!doctorIds.contains(parsed.record().getDoctorId())) {
+                recordError(result, parsed.line(),
+                        "Doctor not found with ID: " + parsed.record().getDoctorId());
+            } else {
+                valid.add(parsed);
+            }
+        }
+        chunk.clear();
+        
+        if (valid.isEmpty()) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    INSERT_SQL, valid, valid.size(), (ps, parsed) -> bind(ps, parsed.record(), now)));
+            result.setImported(result.getImported() + valid.size());
+        } catch (DataAccessException e) {
+            // Isolate the offending rows by retrying the chunk one row at a time
+            log.warn("Batch insert failed, retrying {} rows individually: {}", valid.size(), e.getMessage());
+            for (ParsedLine parsed : valid) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, parsed.record(), now));
+                    result.setImported(result.getImported() + 1);
+                } catch (DataAccessException rowError) {
+                    recordError(result, parsed.line(), rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+    
+    private void bind(PreparedStatement ps, MedicalRecordDTO record, LocalDateTime now)
+            throws SQLException {
+        LocalDateTime recordedAt = record.getRecordedAt() != null ? record.getRecordedAt() : now;
+        
+        ps.setLong(1, record.getPatientId());
+        ps.setLong(2, record.getDoctorId());
+        ps.setString(3, record.getDiagnosis());
+        ps.setString(4, record.getTreatment());
+        ps.setString(5, record.getMedications());
+        ps.setString(6, record.getNotes());
+        ps.setString(7, record.getAllergies());
+        ps.setString(8, record.getChronicDiseases());
+        ps.setTimestamp(9, Timestamp.valueOf(recordedAt));
+        ps.setTimestamp(10, Timestamp.valueOf(now));
+    }
+    
+    private void recordError(BulkImportResultDTO result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new BulkImportResultDTO.LineError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+    
+    private record ParsedLine(long line, MedicalRecordDTO record) {
+    }
+}
@@ -6,17 +6,24 @@ import com.hospital.entity.MedicalRecord;
 import com.hospital.entity.Patient;
 import com.hospital.exception.ResourceNotFoundException;
 import com.hospital.repository.DoctorRepository;
+import com.hospital.repository.DtoProjection;
 import com.hospital.repository.MedicalRecordRepository;
 import com.hospital.repository.PatientRepository;
+import com.hospital.repository.ProjectionRepository;
+import com.hospital.util.FieldSelection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -28,13 +35,20 @@ import java.util.stream.Collectors;
 @Transactional
 public class MedicalRecordService {
     
+    private static final DtoProjection<MedicalRecord, MedicalRecordDTO> PROJECTION =
+            DtoProjection.of(MedicalRecord.class, MedicalRecordDTO.class)
+                    .withPath("patientId", "patient.id")
+                    .withPath("doctorId", "doctor.id");
+    
     private final MedicalRecordRepository medicalRecordRepository;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
+    private final ProjectionRepository projectionRepository;
     
     /**
      * Create a new medical record
      */
+    @CacheEvict(value = CacheManagerUtil.MEDICAL_RECORD_CACHE, key = "#result.id")
     public MedicalRecordDTO createMedicalRecord(MedicalRecordDTO recordDTO) {
         log.info("Creating medical record for patient ID: {}", recordDTO.getPatientId());
         
@@ -67,6 +81,7 @@ public class MedicalRecordService {
      * Get medical record by ID
      */
     @Transactional(readOnly = true)
+    @Cacheable(value = CacheManagerUtil.MEDICAL_RECORD_CACHE, key = "#id", sync = true)
     public MedicalRecordDTO getMedicalRecordById(Long id) {
         log.info("Fetching medical record with ID: {}", id);
         
@@ -81,7 +96,7 @@ public class MedicalRecordService {
      * Get patient's medical records with pagination
      */
     @Transactional(readOnly = true)
-    public Page<MedicalRecordDTO> getPatientMedicalRecords(Long patientId, Pageable pageable) {
+    public Page<MedicalRecordDTO> getPatientMedicalRecords(Long patientId, Pageable pageable, FieldSelection fields) {
         log.info("Fetching medical records for patient ID: {}", patientId);
         
         // Verify patient exists
@@ -89,6 +104,9 @@ public class MedicalRecordService {
             throw new ResourceNotFoundException("Patient not found with ID: " + patientId);
         }
         
+        if (!fields.isAll()) {
+            return projectionRepository.findPage(PROJECTION, fields, Map.of("patient.id", patientId), pageable);
+        }
         return medicalRecordRepository.findByPatientId(patientId, pageable)
                 .map(this::convertToDTO);
     }
@@ -111,11 +129,25 @@ public class MedicalRecordService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Get a patient's medical records in a time window, newest first (ties by descending id),
+     * limited to the given size. Records at exactly {@code before} are included when their
+     * id is below {@code beforeId}.
+     */
+    @Transactional(readOnly = true)
+    public List<MedicalRecordDTO> getPatientTimeline(Long patientId, LocalDateTime from,
+                                                     LocalDateTime before, long beforeId, int limit) {
+        return medicalRecordRepository.findPatientTimeline(patientId, from, before, beforeId, PageRequest.of(0, limit))
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
     /**
      * Get doctor's medical records with pagination
      */
     @Transactional(readOnly = true)
-    public Page<MedicalRecordDTO> getDoctorMedicalRecords(Long doctorId, Pageable pageable) {
+    public Page<MedicalRecordDTO> getDoctorMedicalRecords(Long doctorId, Pageable pageable, FieldSelection fields) {
         log.info("Fetching medical records created by doctor ID: {}", doctorId);
         
         // Verify doctor exists
@@ -123,6 +155,9 @@ public class MedicalRecordService {
             throw new ResourceNotFoundException("Doctor not found with ID: " + doctorId);
         }
         
+        if (!fields.isAll()) {
+            return projectionRepository.findPage(PROJECTION, fields, Map.of("doctor.id", doctorId), pageable);
+        }
         return medicalRecordRepository.findByDoctorId(doctorId, pageable)
                 .map(this::convertToDTO);
     }
@@ -130,6 +165,7 @@ public class MedicalRecordService {
     /**
      * Update medical record
      */
+    @CacheEvict(value = CacheManagerUtil.MEDICAL_RECORD_CACHE, key = "#id")
     public MedicalRecordDTO updateMedicalRecord(Long id, MedicalRecordDTO recordDTO) {
         log.info("Updating medical record with ID: {}", id);
         
@@ -153,6 +189,7 @@ public class MedicalRecordService {
     /**
      * Delete medical record
      */
+    @CacheEvict(value = CacheManagerUtil.MEDICAL_RECORD_CACHE, key = "#id")
     public void deleteMedicalRecord(Long id) {
         log.info("Deleting medical record with ID: {}", id);
         
@@ -0,0 +1,232 @@
+package com.hospital.service;
+
+import com.hospital.dto.BulkImportResultDTO;
+import com.hospital.dto.PatientDTO;
+import com.hospital.util.CsvReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk patient import from CSV.
+ * The file is parsed record by record, duplicates are checked against email and phone sets
+ * preloaded in one query, and rows are inserted with JDBC batching, one transaction per chunk.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PatientImportService {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO patients (first_name, last_name, email, phone, address, age, blood_type, " +
+            "gender, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final List<String> COLUMNS = List.of(
+            "firstname", "lastname", "email", "phone", "address", "age", "bloodtype", "gender");
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final UniquenessGuard uniquenessGuard;
+    
+    @Value("${hospital.bulk.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${hospital.bulk.max-reported-errors:1000}")
+    private int maxReportedErrors;
+    
+    /**
+     * Import patients from a CSV stream with a header row.
+     * Header names are matched case-insensitively, ignoring underscores (first_name or firstName).
+     */
+    public BulkImportResultDTO importPatients(InputStream csv) throws IOException {
+        log.info("Starting bulk patient import");
+        
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        Set<String> knownEmails = new HashSet<>();
+        Set<String> knownPhones = new HashSet<>();
+        jdbcTemplate.query("SELECT email, phone FROM patients", rs -> {
+            addIfPresent(knownEmails, rs.getString(1));
+            addIfPresent(knownPhones, rs.getString(2));
+        });
+        log.info("Preloaded {} emails and {} phones for duplicate detection", knownEmails.size(), knownPhones.size());
+        
+        try (CsvReader reader = new CsvReader(new BufferedReader(
+                new InputStreamReader(csv, StandardCharsets.UTF_8)))) {
+            List<String> header = reader.readRecord();
+            if (header == null) {
+                return result;
+            }
+            Map<String, Integer> columnIndex = indexColumns(header);
+            
+            List<ParsedRow> chunk = new ArrayList<>(batchSize);
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                result.setTotalLines(result.getTotalLines() + 1);
+                long line = reader.getRecordLineNumber();
+                
+                PatientDTO patient;
+                try {
+                    patient = toPatient(record, columnIndex);
+                } catch (NumberFormatException e) {
+                    recordError(result, line, "Invalid age: " + e.getMessage());
+                    continue;
+                }
+                
+                Set<ConstraintViolation<PatientDTO>> violations = validator.validate(patient);
+                if (!violations.isEmpty()) {
+                    recordError(result, line, violations.stream()
+                            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                            .collect(Collectors.joining(", ")));
+                    continue;
+                }
+                
+                if (patient.getEmail() != null && !knownEmails.add(patient.getEmail())) {
+                    recordError(result, line, "Patient with email " + patient.getEmail() + " already exists");
+                    continue;
+                }
+                if (patient.getPhone() != null && !knownPhones.add(patient.getPhone())) {
+                    recordError(result, line, "Patient with phone " + patient.getPhone() + " already exists");
+                    continue;
+                }
+                
+                chunk.add(new ParsedRow(line, patient));
+                if (chunk.size() >= batchSize) {
+                    flush(chunk, result);
+                }
+            }
+            flush(chunk, result);
+        }
+        
+        log.info("Bulk patient import finished: {} rows, {} imported, {} failed",
+                result.getTotalLines(), result.getImported(), result.getFailed());
+        return result;
+    }
+    
+    private void flush(List<ParsedRow> chunk, BulkImportResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    INSERT_SQL, chunk, chunk.size(), (ps, row) -> bind(ps, row.patient(), now)));
+            result.setImported(result.getImported() + chunk.size());
+            chunk.forEach(row -> recordUnique(row.patient()));
+        } catch (DataAccessException e) {
+            // Isolate the offending rows by retrying the chunk one row at a time
+            log.warn("Batch insert failed, retrying {} rows individually: {}", chunk.size(), e.getMessage());
+            for (ParsedRow row : chunk) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row.patient(), now));
+                    result.setImported(result.getImported() + 1);
+                    recordUnique(row.patient());
+                } catch (DataAccessException rowError) {
+                    recordError(result, row.line(), rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        chunk.clear();
+        
+        log.info("Patient import progress: {} rows read, {} imported, {} failed",
+                result.getTotalLines(), result.getImported(), result.getFailed());
+    }
+    
+    private void bind(PreparedStatement ps, PatientDTO patient, LocalDateTime now) throws SQLException {
+        ps.setString(1, patient.getFirstName());
+        ps.setString(2, patient.getLastName());
+        ps.setString(3, patient.getEmail());
+        ps.setString(4, patient.getPhone());
+        ps.setString(5, patient.getAddress());
+        ps.setInt(6, patient.getAge());
+        ps.setString(7, patient.getBloodType());
+        ps.setString(8, patient.getGender());
+        ps.setTimestamp(9, Timestamp.valueOf(now));
+        ps.setTimestamp(10, Timestamp.valueOf(now));
+    }
+    
+    private void recordUnique(PatientDTO patient) {
+        uniquenessGuard.record(UniquenessGuard.Field.PATIENT_EMAIL, patient.getEmail());
+        uniquenessGuard.record(UniquenessGuard.Field.PATIENT_PHONE, patient.getPhone());
+    }
+    
+    private Map<String, Integer> indexColumns(List<String> header) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().replace("_", "").toLowerCase();
+            if (COLUMNS.contains(name)) {
+                index.put(name, i);
+            }
+        }
+        return index;
+    }
+    
+    private PatientDTO toPatient(List<String> record, Map<String, Integer> columnIndex) {
+        String age = column(record, columnIndex, "age");
+        
+        return PatientDTO.builder()
+                .firstName(column(record, columnIndex, "firstname"))
+                .lastName(column(record, columnIndex, "lastname"))
+                .email(column(record, columnIndex, "email"))
+                .phone(column(record, columnIndex, "phone"))
+                .address(column(record, columnIndex, "address"))
+                .age(age != null ? Integer.parseInt(age) : 0)
+                .bloodType(column(record, columnIndex, "bloodtype"))
+                .gender(column(record, columnIndex, "gender"))
+                .build();
+    }
+    
+    private String column(List<String> record, Map<String, Integer> columnIndex, String name) {
+        Integer index = columnIndex.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    private void addIfPresent(Set<String> set, String value) {
+        if (value != null) {
+            set.add(value);
+        }
+    }
+    
+    private void recordError(BulkImportResultDTO result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new BulkImportResultDTO.LineError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+    
+    private record ParsedRow(long line, PatientDTO patient) {
+    }
+}
@@ -1,19 +1,40 @@
 package com.hospital.service;
 
+import com.hospital.dto.AppointmentDTO;
+import com.hospital.dto.MedicalRecordDTO;
 import com.hospital.dto.PatientDTO;
+import com.hospital.dto.PatientHistoryDTO;
+import com.hospital.dto.TimelineEntryDTO;
 import com.hospital.entity.Patient;
 import com.hospital.entity.User;
 import com.hospital.exception.DuplicateResourceException;
 import com.hospital.exception.ResourceNotFoundException;
+import com.hospital.repository.DtoProjection;
 import com.hospital.repository.PatientRepository;
+import com.hospital.repository.ProjectionRepository;
 import com.hospital.repository.UserRepository;
+import com.hospital.service.UniquenessGuard.Field;
+import com.hospital.util.FieldSelection;
+import com.hospital.util.UniqueViolations;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 /**
  * Service layer for Patient management
  */
@@ -23,27 +44,37 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class PatientService {
     
+    private static final LocalDateTime TIMELINE_START = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime TIMELINE_END = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final int MAX_TIMELINE_SIZE = 200;
+    private static final Comparator<TimelineEntryDTO> TIMELINE_ORDER = Comparator
+            .comparing(TimelineEntryDTO::getTimestamp)
+            .thenComparing(TimelineEntryDTO::getType)
+            .thenComparing(TimelineEntryDTO::getId)
+            .reversed();
+    
+    private static final DtoProjection<Patient, PatientDTO> PROJECTION = DtoProjection.of(Patient.class, PatientDTO.class);
+    
     private final PatientRepository patientRepository;
+    private final ProjectionRepository projectionRepository;
+    private final BulkLookup bulkLookup;
     private final UserRepository userRepository;
+    private final ReferenceIdCache referenceIdCache;
+    private final UniquenessGuard uniquenessGuard;
+    private final AppointmentService appointmentService;
+    private final MedicalRecordService medicalRecordService;
     
     /**
      * Create a new patient
      */
+    @CacheEvict(value = CacheManagerUtil.PATIENT_CACHE, key = "#result.id")
     public PatientDTO createPatient(PatientDTO patientDTO) {
         log.info("Creating new patient: {}", patientDTO.getEmail());
         
-        // Check for duplicate email
-        if (patientRepository.findByEmail(patientDTO.getEmail()).isPresent()) {
-            throw new DuplicateResourceException("Patient with email " + patientDTO.getEmail() + " already exists");
-        }
-        
-        // Check for duplicate phone
-        if (patientDTO.getPhone() != null && patientRepository.findByPhone(patientDTO.getPhone()).isPresent()) {
-            throw new DuplicateResourceException("Patient with phone " + patientDTO.getPhone() + " already exists");
-        }
+        checkDuplicates(patientDTO.getEmail(), patientDTO.getPhone());
         
         Patient patient = convertToEntity(patientDTO);
-        Patient savedPatient = patientRepository.save(patient);
+        Patient savedPatient = saveUnique(patient);
         
         log.info("Patient created successfully with ID: {}", savedPatient.getId());
         return convertToDTO(savedPatient);
@@ -53,6 +84,7 @@ public class PatientService {
      * Get patient by ID
      */
     @Transactional(readOnly = true)
+    @Cacheable(value = CacheManagerUtil.PATIENT_CACHE, key = "#id", sync = true)
     public PatientDTO getPatientById(Long id) {
         log.info("Fetching patient with ID: {}", id);
         
@@ -63,23 +95,44 @@ public class PatientService {
     }
     
     /**
-     * Get all patients with pagination
+     * Get patients by IDs in one query per chunk, serving cached ones from the local cache;
+     * unknown IDs are left out
+     */
+    @Transactional(readOnly = true)
+    public List<PatientDTO> getPatientsByIds(Collection<Long> ids) {
+        log.info("Fetching {} patients by ID", ids.size());
+        return bulkLookup.findAll(CacheManagerUtil.PATIENT_CACHE, ids,
+                chunk -> patientRepository.findAllWithUserByIdIn(chunk).stream().map(this::convertToDTO).toList(),
+                PatientDTO::getId);
+    }
+    
+    /**
+     * Get all patients with pagination, reading only the selected fields
      */
     @Transactional(readOnly = true)
-    public Page<PatientDTO> getAllPatients(Pageable pageable) {
+    public Page<PatientDTO> getAllPatients(Pageable pageable, FieldSelection fields) {
         log.info("Fetching all patients with pagination");
+        if (!fields.isAll()) {
+            return projectionRepository.findPage(PROJECTION, fields, Map.of(), pageable);
+        }
         return patientRepository.findAll(pageable).map(this::convertToDTO);
     }
     
     /**
      * Update patient information
      */
+    @CacheEvict(value = CacheManagerUtil.PATIENT_CACHE, key = "#id")
     public PatientDTO updatePatient(Long id, PatientDTO patientDTO) {
         log.info("Updating patient with ID: {}", id);
         
         Patient patient = patientRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with ID: " + id));
         
+        // Only changed values can collide with another patient
+        checkDuplicates(
+                Objects.equals(patient.getEmail(), patientDTO.getEmail()) ? null : patientDTO.getEmail(),
+                Objects.equals(patient.getPhone(), patientDTO.getPhone()) ? null : patientDTO.getPhone());
+        
         // Update fields
         patient.setFirstName(patientDTO.getFirstName());
         patient.setLastName(patientDTO.getLastName());
@@ -90,15 +143,21 @@ public class PatientService {
         patient.setBloodType(patientDTO.getBloodType());
         patient.setGender(patientDTO.getGender());
         
-        Patient updatedPatient = patientRepository.save(patient);
+        Patient updatedPatient = saveUnique(patient);
         log.info("Patient updated successfully with ID: {}", id);
         
         return convertToDTO(updatedPatient);
     }
     
     /**
-     * Delete patient
+     * Delete patient. Appointments and medical records are removed with it,
+     * so their caches are cleared as well.
      */
+    @Caching(evict = {
+            @CacheEvict(value = CacheManagerUtil.PATIENT_CACHE, key = "#id"),
+            @CacheEvict(value = {CacheManagerUtil.APPOINTMENT_CACHE, CacheManagerUtil.MEDICAL_RECORD_CACHE},
+                    allEntries = true)
+    })
     public void deletePatient(Long id) {
         log.info("Deleting patient with ID: {}", id);
         
@@ -106,23 +165,134 @@ public class PatientService {
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with ID: " + id));
         
         patientRepository.delete(patient);
+        referenceIdCache.evictPatient(id);
         log.info("Patient deleted successfully with ID: {}", id);
     }
     
     /**
-     * Get patient medical history
+     * Get patient medical history as a merged timeline of appointments and medical records.
+     * Entries are ordered by (timestamp, type, id), newest first, so entries sharing a timestamp
+     * have a stable order. Returns the newest entries in [from, cursor), using one query per source;
+     * pass nextBefore, nextBeforeType and nextBeforeId back as before, beforeType and beforeId
+     * to page further into the past. Without beforeType/beforeId, before is an exclusive time bound.
      */
     @Transactional(readOnly = true)
-    public PatientDTO getPatientHistory(Long id) {
+    public PatientHistoryDTO getPatientHistory(Long id, LocalDateTime from, LocalDateTime before,
+                                               String beforeType, Long beforeId, int size) {
         log.info("Fetching medical history for patient ID: {}", id);
         
         Patient patient = patientRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with ID: " + id));
         
-        return convertToDTO(patient);
+        int limit = Math.max(1, Math.min(size, MAX_TIMELINE_SIZE));
+        LocalDateTime windowStart = from != null ? from : TIMELINE_START;
+        LocalDateTime windowEnd = before != null ? before : TIMELINE_END;
+        
+        // Fetch one extra entry from each source to detect whether older entries remain
+        List<TimelineEntryDTO> entries = new ArrayList<>();
+        for (AppointmentDTO appointment : appointmentService
+                .getPatientTimeline(id, windowStart, windowEnd,
+                        tieBreakBound(TimelineEntryDTO.APPOINTMENT, beforeType, beforeId), limit + 1)) {
+            entries.add(TimelineEntryDTO.builder()
+                    .type(TimelineEntryDTO.APPOINTMENT)
+                    .id(appointment.getId())
+                    .timestamp(appointment.getAppointmentDateTime())
+                    .appointment(appointment)
+                    .build());
+        }
+        for (MedicalRecordDTO record : medicalRecordService
+                .getPatientTimeline(id, windowStart, windowEnd,
+                        tieBreakBound(TimelineEntryDTO.MEDICAL_RECORD, beforeType, beforeId), limit + 1)) {
+            entries.add(TimelineEntryDTO.builder()
+                    .type(TimelineEntryDTO.MEDICAL_RECORD)
+                    .id(record.getId())
+                    .timestamp(record.getRecordedAt())
+                    .medicalRecord(record)
+                    .build());
+        }
+        
+        entries.sort(TIMELINE_ORDER);
+        
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = new ArrayList<>(entries.subList(0, limit));
+        }
+        
+        TimelineEntryDTO last = hasMore ? entries.get(entries.size() - 1) : null;
+        return PatientHistoryDTO.builder()
+                .patient(convertToDTO(patient))
+                .entries(entries)
+                .hasMore(hasMore)
+                .nextBefore(last != null ? last.getTimestamp() : null)
+                .nextBeforeType(last != null ? last.getType() : null)
+                .nextBeforeId(last != null ? last.getId() : null)
+                .build();
     }
     
     // Helper methods
+    
+    /**
+     * Exclusive upper id bound for entries of the given type at exactly the cursor timestamp,
+     * i.e. {@code (type, id) < (beforeType, beforeId)}: a type ordered below the cursor's type
+     * is entirely past the cursor, the cursor's own type only below its id, and a type ordered
+     * above it was already returned. Without a tiebreak the timestamp bound is strict.
+     */
+    private static long tieBreakBound(String type, String beforeType, Long beforeId) {
+        if (beforeType == null || beforeId == null) {
+            return Long.MIN_VALUE;
+        }
+        int order = type.compareTo(beforeType);
+        if (order < 0) {
+            return Long.MAX_VALUE;
+        }
+        return order == 0 ? beforeId : Long.MIN_VALUE;
+    }
+    
+    /**
+     * Reject duplicate email or phone. The Bloom filters skip the lookup for values that
+     * are definitely new; otherwise both values are checked with a single query.
+     */
+    private void checkDuplicates(String email, String phone) {
+        String probeEmail = uniquenessGuard.mightExist(Field.PATIENT_EMAIL, email) ? email : null;
+        String probePhone = uniquenessGuard.mightExist(Field.PATIENT_PHONE, phone) ? phone : null;
+        
+        if (probeEmail == null && probePhone == null) {
+            return;
+        }
+        
+        List<String> taken = patientRepository.findTakenFields(probeEmail, probePhone);
+        if (taken.contains("email")) {
+            throw new DuplicateResourceException("Patient with email " + email + " already exists");
+        }
+        if (taken.contains("phone")) {
+            throw new DuplicateResourceException("Patient with phone " + phone + " already exists");
+        }
+    }
+    
+    /**
+     * Save and flush so a unique constraint violation from a concurrent registration
+     * surfaces here and is reported as a duplicate; other integrity failures propagate as is
+     */
+    private Patient saveUnique(Patient patient) {
+        Patient saved;
+        try {
+            saved = patientRepository.saveAndFlush(patient);
+        } catch (DataIntegrityViolationException e) {
+            String constraint = UniqueViolations.constraintName(e);
+            if (Patient.EMAIL_CONSTRAINT.equals(constraint)) {
+                throw new DuplicateResourceException("Patient with email " + patient.getEmail() + " already exists", e);
+            }
+            if (Patient.PHONE_CONSTRAINT.equals(constraint)) {
+                throw new DuplicateResourceException("Patient with phone " + patient.getPhone() + " already exists", e);
+            }
+            throw e;
+        }
+        
+        uniquenessGuard.record(Field.PATIENT_EMAIL, saved.getEmail());
+        uniquenessGuard.record(Field.PATIENT_PHONE, saved.getPhone());
+        return saved;
+    }
+    
     private PatientDTO convertToDTO(Patient patient) {
         return PatientDTO.builder()
                 .id(patient.getId())
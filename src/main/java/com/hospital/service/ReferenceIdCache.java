@@ -0,0 +1,85 @@
+package com.hospital.service;
+
+import com.hospital.repository.DoctorRepository;
+import com.hospital.repository.PatientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory set of patient and doctor ids known to exist.
+ * Used by bulk pipelines to validate foreign keys without a lookup per row;
+ * only confirmed ids are cached, unknown ids are resolved with one IN query per batch.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReferenceIdCache {
+    
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    
+    @Value("${hospital.bulk.id-cache-max-size:1000000}")
+    private int maxSize;
+    
+    private final Set<Long> knownPatientIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> knownDoctorIds = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * Return the subset of the given patient ids that exist
+     */
+    public Set<Long> existingPatientIds(Collection<Long> ids) {
+        return resolve(ids, knownPatientIds, patientRepository::findExistingIds);
+    }
+    
+    /**
+     * Return the subset of the given doctor ids that exist
+     */
+    public Set<Long> existingDoctorIds(Collection<Long> ids) {
+        return resolve(ids, knownDoctorIds, doctorRepository::findExistingIds);
+    }
+    
+    public void evictPatient(Long id) {
+        knownPatientIds.remove(id);
+    }
+    
+    public void evictDoctor(Long id) {
+        knownDoctorIds.remove(id);
+    }
+    
+    private Set<Long> resolve(Collection<Long> ids, Set<Long> known,
+                              Function<Collection<Long>, List<Long>> loader) {
+        Set<Long> existing = new HashSet<>();
+        List<Long> unknown = new ArrayList<>();
+        
+        for (Long id : new HashSet<>(ids)) {
+            if (known.contains(id)) {
+                existing.add(id);
+            } else {
+                unknown.add(id);
+            }
+        }
+        
+        if (!unknown.isEmpty()) {
+            List<Long> found = loader.apply(unknown);
+            existing.addAll(found);
+            
+            if (known.size() + found.size() > maxSize) {
+                log.debug("Reference id cache reached {} entries, resetting", maxSize);
+                known.clear();
+            }
+            known.addAll(found);
+        }
+        
+        return existing;
+    }
+}
@@ -1,116 +1,51 @@
 package com.hospital.service;
 
-import com.twilio.Twilio;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
+import com.hospital.notification.AppointmentNotification;
+import com.hospital.notification.NotificationDeduplicator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
- * Service for sending SMS notifications using Twilio
+ * Service for sending SMS notifications.
+ * Notifications go through the NotificationDeduplicator, which drops repeats of the last
+ * message sent for the appointment, and are then sent in the background by the
+ * SmsDispatcher, so these methods return immediately regardless of the provider's latency.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SmsNotificationService {
     
-    @Value("${twilio.account-sid}")
-    private String accountSid;
-    
-    @Value("${twilio.auth-token}")
-    private String authToken;
-    
-    @Value("${twilio.phone-number}")
-    private String twilioPhoneNumber;
+    private final NotificationDeduplicator notificationDeduplicator;
     
     /**
      * Send appointment confirmation SMS
      */
-    public void sendAppointmentConfirmation(String patientPhone, String doctorName, 
-                                           String appointmentDateTime) {
-        try {
-            log.info("Sending appointment confirmation SMS to: {}", patientPhone);
-            
-            Twilio.init(accountSid, authToken);
-            
-            String messageBody = String.format(
-                    "Appointment Confirmation: Your appointment with Dr. %s is scheduled for %s. " +
-                    "Please arrive 10 minutes early. Reply CONFIRM to confirm or CANCEL to cancel.",
-                    doctorName, appointmentDateTime
-            );
-            
-            Message message = Message.creator(
-                    new PhoneNumber(twilioPhoneNumber),      // From number
-                    new PhoneNumber(patientPhone),           // To number
-                    messageBody                              // Message body
-            )
-                    .create();
-            
-            log.info("SMS sent successfully with SID: {}", message.getSid());
-            
-        } catch (Exception e) {
-            log.error("Failed to send SMS notification: {}", e.getMessage(), e);
-        }
+    public void sendAppointmentConfirmation(Long patientId, Long appointmentId, String patientPhone,
+                                            String doctorName, String appointmentDateTime) {
+        log.info("Queueing appointment confirmation SMS to: {}", patientPhone);
+        notificationDeduplicator.submit(patientId, appointmentId, new AppointmentNotification(
+                AppointmentNotification.Type.CONFIRMATION, patientPhone, doctorName, appointmentDateTime));
     }
     
     /**
      * Send appointment cancellation SMS
      */
-    public void sendAppointmentCancellation(String patientPhone, String doctorName) {
-        try {
-            log.info("Sending appointment cancellation SMS to: {}", patientPhone);
-            
-            Twilio.init(accountSid, authToken);
-            
-            String messageBody = String.format(
-                    "Appointment Cancelled: Your appointment with Dr. %s has been cancelled. " +
-                    "Please contact the hospital to reschedule.",
-                    doctorName
-            );
-            
-            Message message = Message.creator(
-                    new PhoneNumber(twilioPhoneNumber),      // From number
-                    new PhoneNumber(patientPhone),           // To number
-                    messageBody                              // Message body
-            )
-                    .create();
-            
-            log.info("SMS sent successfully with SID: {}", message.getSid());
-            
-        } catch (Exception e) {
-            log.error("Failed to send SMS notification: {}", e.getMessage(), e);
-        }
+    public void sendAppointmentCancellation(Long patientId, Long appointmentId, String patientPhone,
+                                            String doctorName) {
+        log.info("Queueing appointment cancellation SMS to: {}", patientPhone);
+        notificationDeduplicator.submit(patientId, appointmentId, new AppointmentNotification(
+                AppointmentNotification.Type.CANCELLATION, patientPhone, doctorName, null));
     }
     
     /**
      * Send appointment reminder SMS
      */
-    public void sendAppointmentReminder(String patientPhone, String doctorName, 
-                                       String appointmentDateTime) {
-        try {
-            log.info("Sending appointment reminder SMS to: {}", patientPhone);
-            
-            Twilio.init(accountSid, authToken);
-            
-            String messageBody = String.format(
-                    "Appointment Reminder: You have an appointment with Dr. %s scheduled for %s. " +
-                    "Please confirm your attendance.",
-                    doctorName, appointmentDateTime
-            );
-            
-            Message message = Message.creator(
-                    new PhoneNumber(twilioPhoneNumber),      // From number
-                    new PhoneNumber(patientPhone),           // To number
-                    messageBody                              // Message body
-            )
-                    .create();
-            
-            log.info("SMS sent successfully with SID: {}", message.getSid());
-            
-        } catch (Exception e) {
-            log.error("Failed to send SMS notification: {}", e.getMessage(), e);
-        }
+    public void sendAppointmentReminder(Long patientId, Long appointmentId, String patientPhone,
+                                        String doctorName, String appointmentDateTime) {
+        log.info("Queueing appointment reminder SMS to: {}", patientPhone);
+        notificationDeduplicator.submit(patientId, appointmentId, new AppointmentNotification(
+                AppointmentNotification.Type.REMINDER, patientPhone, doctorName, appointmentDateTime));
     }
 }
@@ -0,0 +1,94 @@
+package com.hospital.service;
+
+import com.hospital.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Fast negative check for unique registration fields.
+ * Each field has a Bloom filter loaded from the database at startup: a miss means the value
+ * is definitely unused and no lookup is needed, a hit means one existence query must confirm.
+ * Unique constraints on the columns remain the final arbiter for concurrent registrations.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UniquenessGuard {
+    
+    public enum Field {
+        PATIENT_EMAIL("SELECT email FROM patients WHERE email IS NOT NULL"),
+        PATIENT_PHONE("SELECT phone FROM patients WHERE phone IS NOT NULL"),
+        DOCTOR_EMAIL("SELECT email FROM doctors WHERE email IS NOT NULL");
+        
+        private final String loadQuery;
+        
+        Field(String loadQuery) {
+            this.loadQuery = loadQuery;
+        }
+    }
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${hospital.uniqueness.expected-insertions:1000000}")
+    private long expectedInsertions;
+    
+    @Value("${hospital.uniqueness.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    
+    private final Map<Field, BloomFilter> filters = new EnumMap<>(Field.class);
+    private volatile boolean ready;
+    
+    @PostConstruct
+    void init() {
+        for (Field field : Field.values()) {
+            filters.put(field, new BloomFilter(expectedInsertions, falsePositiveRate));
+        }
+    }
+    
+    /**
+     * Populate the filters from the database. Values registered while loading
+     * are recorded into the same filters, so nothing is missed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (Field field : Field.values()) {
+            BloomFilter filter = filters.get(field);
+            jdbcTemplate.query(field.loadQuery, rs -> {
+                filter.put(rs.getString(1));
+            });
+        }
+        ready = true;
+        log.info("Uniqueness filters loaded");
+    }
+    
+    /**
+     * Whether the value may already be taken. False means it is definitely free.
+     */
+    public boolean mightExist(Field field, String value) {
+        if (value == null) {
+            return false;
+        }
+        if (!ready) {
+            return true;
+        }
+        return filters.get(field).mightContain(value);
+    }
+    
+    /**
+     * Record a value that is now in use
+     */
+    public void record(Field field, String value) {
+        if (value != null) {
+            filters.get(field).put(value);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.hospital.util;
+
+import com.hospital.exception.InvalidFieldSelectionException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.StringUtils;
+
+import java.beans.PropertyDescriptor;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Fields requested with the {@code fields} query parameter (comma-separated DTO property names);
+ * without the parameter every field is returned
+ */
+public final class FieldSelection {
+    
+    public static final String PARAMETER = "fields";
+    
+    private static final FieldSelection ALL = new FieldSelection(Collections.emptySet());
+    
+    private final Set<String> names;
+    
+    private FieldSelection(Set<String> names) {
+        this.names = names;
+    }
+    
+    public static FieldSelection all() {
+        return ALL;
+    }
+    
+    public static FieldSelection parse(String value) {
+        if (!StringUtils.hasText(value)) {
+            return ALL;
+        }
+        Set<String> names = Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return names.isEmpty() ? ALL : new FieldSelection(Collections.unmodifiableSet(names));
+    }
+    
+    public boolean isAll() {
+        return names.isEmpty();
+    }
+    
+    /**
+     * The selected names, empty when all fields are selected
+     */
+    public Set<String> getNames() {
+        return names;
+    }
+    
+    /**
+     * Check that every selected name is a property of the DTO type
+     *
+     * @throws InvalidFieldSelectionException naming the unknown fields and the valid ones
+     */
+    public void validate(Class<?> dtoType) {
+        Set<String> properties = propertiesOf(dtoType);
+        Set<String> unknown = names.stream()
+                .filter(name -> !properties.contains(name))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (!unknown.isEmpty()) {
+            throw new InvalidFieldSelectionException("Unknown fields " + unknown + "; valid fields are "
+                    + new TreeSet<>(properties));
+        }
+    }
+    
+    static Set<String> propertiesOf(Class<?> dtoType) {
+        return Arrays.stream(BeanUtils.getPropertyDescriptors(dtoType))
+                .map(PropertyDescriptor::getName)
+                .filter(name -> !"class".equals(name))
+                .collect(Collectors.toSet());
+    }
+    
+    @Override
+    public String toString() {
+        return isAll() ? "*" : String.join(",", names);
+    }
+}
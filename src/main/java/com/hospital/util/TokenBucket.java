@@ -0,0 +1,52 @@
+package com.hospital.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ * Implemented as the equivalent generic cell rate algorithm: the whole bucket state is one
+ * "theoretical arrival time" updated with compare-and-set, so acquiring never blocks and
+ * needs no periodic refill. A full bucket allows {@code capacity} requests at once, after
+ * which requests are admitted at {@code refillPerSecond}.
+ */
+public class TokenBucket {
+    
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+    
+    public TokenBucket(long capacity, double refillPerSecond) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Refill rate must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+    
+    /**
+     * Take one token
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+     */
+    public long tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+    
+    long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.hospital.util;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Tells unique constraint violations apart from other integrity failures (not-null, foreign
+ * key, check), so only a genuine duplicate is reported to the client as one
+ */
+public final class UniqueViolations {
+    
+    /** SQLState of a unique violation */
+    static final String UNIQUE_VIOLATION = "23505";
+    
+    private UniqueViolations() {
+    }
+    
+    /**
+     * Name of the unique constraint the failed write violated, or null if it failed for
+     * another reason or the database did not report the constraint
+     */
+    public static String constraintName(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return UNIQUE_VIOLATION.equals(violation.getSQLState()) ? violation.getConstraintName() : null;
+            }
+        }
+        return null;
+    }
+}
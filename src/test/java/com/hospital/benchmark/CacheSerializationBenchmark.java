@@ -0,0 +1,134 @@
+package com.hospital.benchmark;
+
+import com.hospital.cache.SmileRedisSerializer;
+import com.hospital.dto.MedicalRecordDTO;
+import com.hospital.dto.PatientDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of cached DTOs with JDK serialization vs Smile (with and without compression).
+ * Bytes per entry are printed before the run.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.hospital.benchmark.CacheSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializationBenchmark {
+    
+    @Param({"jdk", "smile", "smile-deflate"})
+    public String serializer;
+    
+    private RedisSerializer<Object> patientSerializer;
+    private RedisSerializer<Object> recordSerializer;
+    private PatientDTO patient;
+    private MedicalRecordDTO record;
+    private byte[] patientBytes;
+    private byte[] recordBytes;
+    
+    @Setup
+    public void setUp() {
+        patient = samplePatient();
+        record = sampleRecord();
+        patientSerializer = create(serializer, PatientDTO.class);
+        recordSerializer = create(serializer, MedicalRecordDTO.class);
+        patientBytes = patientSerializer.serialize(patient);
+        recordBytes = recordSerializer.serialize(record);
+    }
+    
+    @Benchmark
+    public byte[] encodePatient() {
+        return patientSerializer.serialize(patient);
+    }
+    
+    @Benchmark
+    public Object decodePatient() {
+        return patientSerializer.deserialize(patientBytes);
+    }
+    
+    @Benchmark
+    public byte[] encodeMedicalRecord() {
+        return recordSerializer.serialize(record);
+    }
+    
+    @Benchmark
+    public Object decodeMedicalRecord() {
+        return recordSerializer.deserialize(recordBytes);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        for (String name : new String[]{"jdk", "smile", "smile-deflate"}) {
+            System.out.printf("%-14s PatientDTO: %4d bytes, MedicalRecordDTO: %4d bytes%n", name,
+                    create(name, PatientDTO.class).serialize(samplePatient()).length,
+                    create(name, MedicalRecordDTO.class).serialize(sampleRecord()).length);
+        }
+        new Runner(new OptionsBuilder()
+                .include(CacheSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static RedisSerializer<Object> create(String name, Class<?> type) {
+        return switch (name) {
+            case "jdk" -> new JdkSerializationRedisSerializer();
+            case "smile" -> (RedisSerializer<Object>) new SmileRedisSerializer<>(type, -1);
+            case "smile-deflate" -> (RedisSerializer<Object>) new SmileRedisSerializer<>(type, 0);
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+    
+    private static PatientDTO samplePatient() {
+        return PatientDTO.builder()
+                .id(12345L)
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@example.com")
+                .phone("+1234567890")
+                .address("221B Baker Street, London")
+                .age(42)
+                .bloodType("O+")
+                .gender("Male")
+                .createdAt(LocalDateTime.of(2024, 1, 15, 9, 30))
+                .updatedAt(LocalDateTime.of(2024, 6, 1, 14, 5, 12))
+                .build();
+    }
+    
+    private static MedicalRecordDTO sampleRecord() {
+        return MedicalRecordDTO.builder()
+                .id(98765L)
+                .patientId(12345L)
+                .doctorId(42L)
+                .diagnosis("Type 2 diabetes mellitus without complications, stable on current regimen")
+                .treatment("Continue metformin, dietary counselling, follow-up HbA1c in three months")
+                .medications("Metformin 500mg twice daily; Atorvastatin 20mg once daily")
+                .notes("Patient reports improved energy levels. Blood pressure within target range. "
+                        + "Advised regular exercise and reduced sugar intake. Foot examination normal.")
+                .allergies("Penicillin")
+                .chronicDiseases("Diabetes, Hypertension")
+                .recordedAt(LocalDateTime.of(2024, 6, 1, 10, 0))
+                .updatedAt(LocalDateTime.of(2024, 6, 1, 10, 0))
+                .build();
+    }
+}
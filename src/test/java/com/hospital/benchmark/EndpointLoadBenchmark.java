@@ -0,0 +1,127 @@
+package com.hospital.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the booking and listing endpoints under many concurrent clients, against a
+ * running instance. Run it once against each execution mode and compare the percentiles:
+ *
+ *   platform threads: mvn spring-boot:run -Dspring-boot.run.arguments=--hospital.rate-limit.enabled=false
+ *   virtual threads:  mvn -Pjdk21 spring-boot:run -Dspring-boot.run.arguments=--hospital.rate-limit.enabled=false
+ *
+ * The rate limiter must be disabled, otherwise most requests are answered with 429.
+ * Concurrency is set with -t (default 200 client threads); raise it past Tomcat's 200 worker
+ * threads to see requests queue in platform mode. Slow database conditions can be reproduced
+ * by lowering spring.datasource.hikari.maximum-pool-size on the server.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.hospital.benchmark.EndpointLoadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Threads(200)
+@Fork(1)
+public class EndpointLoadBenchmark {
+    
+    @Param("http://localhost:8080/api")
+    public String baseUrl;
+    
+    @Param("admin")
+    public String username;
+    
+    @Param("admin123")
+    public String password;
+    
+    /**
+     * Booking uses random patient and doctor ids up to these values
+     */
+    @Param("100")
+    public int patients;
+    
+    @Param("20")
+    public int doctors;
+    
+    private HttpClient client;
+    private String authorization;
+    
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String credentials = new ObjectMapper().createObjectNode()
+                .put("username", username)
+                .put("password", password)
+                .toString();
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(credentials))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with status " + response.statusCode());
+        }
+        JsonNode body = new ObjectMapper().readTree(response.body());
+        authorization = "Bearer " + body.path("token").asText();
+    }
+    
+    @Benchmark
+    public int listDoctors() throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/doctors?page=0&size=20"))
+                .header("Authorization", authorization)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+    
+    @Benchmark
+    public int bookAppointment() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime time = LocalDateTime.now().plusDays(1 + random.nextInt(365))
+                .withHour(8 + random.nextInt(10))
+                .withMinute(random.nextInt(4) * 15)
+                .withSecond(0)
+                .withNano(0);
+        String appointment = "{\"patientId\":" + (1 + random.nextInt(patients))
+                + ",\"doctorId\":" + (1 + random.nextInt(doctors))
+                + ",\"appointmentDateTime\":\"" + time + "\",\"reason\":\"Load test\"}";
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/appointments"))
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(appointment))
+                .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EndpointLoadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
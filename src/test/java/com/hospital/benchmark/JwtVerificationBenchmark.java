@@ -0,0 +1,79 @@
+package com.hospital.benchmark;
+
+import com.hospital.security.HospitalUserDetails;
+import com.hospital.security.JwtTokenProvider;
+import com.hospital.security.JwtTokenVerifier;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification throughput: the previous per-request path (key and parser rebuilt,
+ * token parsed twice for validation and username) vs {@link JwtTokenVerifier}.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.hospital.benchmark.JwtVerificationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class JwtVerificationBenchmark {
+    
+    private static final String SECRET =
+            "benchmark-secret-key-that-is-long-enough-for-the-hs512-algorithm-0123456789abcdef";
+    
+    private JwtTokenVerifier verifier;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        verifier = new JwtTokenVerifier(SECRET);
+        JwtTokenProvider provider = new JwtTokenProvider(verifier);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", TimeUnit.DAYS.toMillis(1));
+        token = provider.generateToken(new HospitalUserDetails(42L, "dr.grey", "", true,
+                List.of(new SimpleGrantedAuthority("ROLE_DOCTOR"))));
+    }
+    
+    @Benchmark
+    public String rebuildKeyAndParseTwice() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+        SecretKey keyAgain = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parser().verifyWith(keyAgain).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+    
+    @Benchmark
+    public Claims cachedParserSingleParse() {
+        return verifier.verify(token);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.hospital.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CacheInvalidationBus
+ */
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationBusTest {
+    
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CacheInvalidationBus bus;
+    private ConcurrentMapCache local;
+    private TwoTierCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(3, 10, 100);
+        bus = new CacheInvalidationBus(redisTemplate, objectMapper, circuitBreaker, "invalidation", 2);
+        local = new ConcurrentMapCache("patients", false);
+        cache = new TwoTierCache("patients", local, new ConcurrentMapCache("patients", false), null, bus,
+                circuitBreaker, Duration.ZERO, Runnable::run, Duration.ofSeconds(10), new SimpleMeterRegistry());
+        bus.register(cache);
+    }
+    
+    @Test
+    void testEvictionsAreCoalescedIntoOneMessage() throws Exception {
+        cache.evict(1L);
+        cache.evict(1L);
+        cache.evict(2L);
+        
+        bus.flush();
+        bus.flush();
+        
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, times(1)).convertAndSend(eq("invalidation"), payload.capture());
+        CacheInvalidationBus.InvalidationMessage message =
+                objectMapper.readValue(payload.getValue(), CacheInvalidationBus.InvalidationMessage.class);
+        assertEquals(2, message.keys().get("patients").size());
+        assertTrue(message.cleared().isEmpty());
+    }
+    
+    @Test
+    void testTooManyKeysBecomeClear() throws Exception {
+        cache.evict(1L);
+        cache.evict(2L);
+        cache.evict(3L);
+        
+        bus.flush();
+        
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq("invalidation"), payload.capture());
+        CacheInvalidationBus.InvalidationMessage message =
+                objectMapper.readValue(payload.getValue(), CacheInvalidationBus.InvalidationMessage.class);
+        assertTrue(message.keys().isEmpty());
+        assertEquals(1, message.cleared().size());
+    }
+    
+    @Test
+    void testRemoteInvalidationEvictsLocalTierOnly() {
+        local.put("1", "John");
+        local.put("2", "Jane");
+        
+        bus.onMessage(message("{\"node\":\"other\",\"keys\":{\"patients\":[\"1\"]},\"cleared\":[]}"), null);
+        
+        assertNull(local.get("1"));
+        assertNotNull(local.get("2"));
+    }
+    
+    private DefaultMessage message(String body) {
+        return new DefaultMessage("invalidation".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,50 @@
+package com.hospital.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.CacheManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for CacheWarmupService
+ */
+class CacheWarmupServiceTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testSnapshotIsWrittenOwnerOnly() throws Exception {
+        Path snapshot = tempDir.resolve("hospital").resolve("cache-snapshot.bin");
+        
+        warmup(snapshot).stop();
+        
+        assertTrue(Files.exists(snapshot));
+        assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(snapshot)));
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(snapshot.getParent())));
+    }
+    
+    @Test
+    void testSnapshotIsNotWrittenToSharedDirectory() throws Exception {
+        Path shared = Files.createDirectory(tempDir.resolve("shared"));
+        Files.setPosixFilePermissions(shared, PosixFilePermissions.fromString("rwxrwxrwx"));
+        Path snapshot = shared.resolve("cache-snapshot.bin");
+        
+        warmup(snapshot).stop();
+        
+        assertFalse(Files.exists(snapshot));
+        assertFalse(Files.exists(shared.resolve("cache-snapshot.bin.tmp")));
+    }
+    
+    private CacheWarmupService warmup(Path snapshot) {
+        return new CacheWarmupService(mock(CacheManager.class), null, null, true, snapshot.toString(),
+                List.of(), 100, 60, 0);
+    }
+}
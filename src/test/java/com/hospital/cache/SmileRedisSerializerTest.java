@@ -0,0 +1,45 @@
+package com.hospital.cache;
+
+import com.hospital.dto.MedicalRecordDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SmileRedisSerializer
+ */
+class SmileRedisSerializerTest {
+    
+    private final MedicalRecordDTO record = MedicalRecordDTO.builder()
+            .id(1L)
+            .patientId(2L)
+            .doctorId(3L)
+            .diagnosis("Hypertension")
+            .notes("Follow-up in two weeks. ".repeat(40))
+            .recordedAt(LocalDateTime.of(2024, 6, 1, 10, 0, 0, 123_456_000))
+            .build();
+    
+    @Test
+    void testRoundTripKeepsFullTimestampPrecision() {
+        SmileRedisSerializer<MedicalRecordDTO> serializer = new SmileRedisSerializer<>(MedicalRecordDTO.class, -1);
+        
+        byte[] bytes = serializer.serialize(record);
+        
+        assertEquals(0, bytes[0]);
+        assertEquals(record, serializer.deserialize(bytes));
+    }
+    
+    @Test
+    void testLargeValuesAreCompressed() {
+        SmileRedisSerializer<MedicalRecordDTO> plain = new SmileRedisSerializer<>(MedicalRecordDTO.class, -1);
+        SmileRedisSerializer<MedicalRecordDTO> compressed = new SmileRedisSerializer<>(MedicalRecordDTO.class, 256);
+        
+        byte[] bytes = compressed.serialize(record);
+        
+        assertEquals(1, bytes[0]);
+        assertTrue(bytes.length < plain.serialize(record).length);
+        assertEquals(record, compressed.deserialize(bytes));
+    }
+}
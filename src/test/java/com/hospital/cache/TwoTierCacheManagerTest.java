@@ -0,0 +1,36 @@
+package com.hospital.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TwoTierCacheManager
+ */
+class TwoTierCacheManagerTest {
+    
+    @Test
+    void testTransactionAwareCachesAreListedUnwrapped() {
+        RedisCacheManager redisCacheManager = mock(RedisCacheManager.class);
+        when(redisCacheManager.getCache(anyString()))
+                .thenAnswer(invocation -> new ConcurrentMapCache(invocation.getArgument(0), false));
+        TwoTierCacheManager manager = new TwoTierCacheManager(redisCacheManager, List.of("patients", "doctors"),
+                100, Duration.ofSeconds(60), Duration.ZERO, Runnable::run, Duration.ofSeconds(10), 100,
+                Duration.ofSeconds(30),
+                mock(CacheInvalidationBus.class), new RedisCircuitBreaker(3, 10, 100), new SimpleMeterRegistry());
+        manager.afterPropertiesSet();
+        
+        assertInstanceOf(TransactionAwareCacheDecorator.class, manager.getCache("patients"));
+        assertEquals(List.of("patients", "doctors"),
+                manager.getTwoTierCaches().stream().map(TwoTierCache::getName).toList());
+    }
+}
@@ -0,0 +1,277 @@
+package com.hospital.cache;
+
+import com.hospital.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TwoTierCache
+ */
+class TwoTierCacheTest {
+    
+    private ConcurrentMapCache local;
+    private ConcurrentMapCache remote;
+    private TwoTierCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        local = new ConcurrentMapCache("patients", false);
+        remote = new ConcurrentMapCache("patients", false);
+        cache = new TwoTierCache("patients", local, remote);
+    }
+    
+    @Test
+    void testRemoteHitIsPromotedToLocal() {
+        remote.put(1L, "John");
+        
+        assertEquals("John", cache.get(1L, String.class));
+        assertNotNull(local.get("1"));
+    }
+    
+    @Test
+    void testLoaderRunsOnlyOnMiss() {
+        AtomicInteger loads = new AtomicInteger();
+        
+        assertEquals("John", cache.get(1L, () -> "John" + (loads.incrementAndGet() > 1 ? "!" : "")));
+        assertEquals("John", cache.get(1L, () -> "John" + (loads.incrementAndGet() > 1 ? "!" : "")));
+        assertEquals(1, loads.get());
+        assertNotNull(remote.get(1L));
+    }
+    
+    @Test
+    void testEvictRemovesFromBothTiers() {
+        cache.put(1L, "John");
+        
+        cache.evict(1L);
+        
+        assertNull(local.get("1"));
+        assertNull(remote.get(1L));
+        assertNull(cache.get(1L));
+    }
+    
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> cache.get(1L, () -> {
+                loads.incrementAndGet();
+                release.await();
+                return "John";
+            })));
+        }
+        Thread.sleep(200);
+        release.countDown();
+        
+        for (Future<String> result : results) {
+            assertEquals("John", result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, loads.get());
+    }
+    
+    @Test
+    void testWaitersAreReleasedWhenTheLoadFailsWithAnError() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        
+        Future<String> leader = executor.submit(() -> cache.get(1L, () -> {
+            loading.countDown();
+            release.await();
+            throw new StackOverflowError();
+        }));
+        loading.await();
+        Future<String> waiter = executor.submit(() -> cache.get(1L, () -> "John"));
+        Thread.sleep(200);
+        release.countDown();
+        
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class,
+                () -> leader.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, leaderFailure.getCause());
+        ExecutionException waiterFailure = assertThrows(ExecutionException.class,
+                () -> waiter.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, waiterFailure.getCause().getCause());
+        executor.shutdown();
+        assertEquals("John", cache.get(1L, () -> "John"));
+    }
+    
+    @Test
+    void testWaiterGivesUpAfterLoadWaitTimeout() throws Exception {
+        cache = new TwoTierCache("patients", local, remote, null, null, breaker(), Duration.ZERO,
+                Runnable::run, Duration.ofMillis(100), new SimpleMeterRegistry());
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> cache.get(1L, () -> {
+            loading.countDown();
+            release.await();
+            return "John";
+        }));
+        loading.await();
+        
+        Cache.ValueRetrievalException e = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get(1L, () -> "John"));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        
+        release.countDown();
+        executor.shutdown();
+    }
+    
+    @Test
+    void testStaleHitIsRefreshedAhead() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache = new TwoTierCache("patients", local, remote, null, null, breaker(), Duration.ofNanos(1),
+                Runnable::run, Duration.ofSeconds(10), registry);
+        AtomicInteger loads = new AtomicInteger();
+        
+        assertEquals("v1", cache.get(1L, () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get(1L, () -> "v" + loads.incrementAndGet()));
+        assertEquals("v2", cache.get(1L, Object.class));
+        assertEquals(1.0, registry.get("hospital.cache.loads").tag("type", "refresh-ahead").counter().count());
+    }
+    
+    @Test
+    void testRefreshAheadRunsOffTheCallerOncePerKey() {
+        List<Runnable> scheduled = new ArrayList<>();
+        cache = new TwoTierCache("patients", local, remote, null, null, breaker(), Duration.ofNanos(1),
+                scheduled::add, Duration.ofSeconds(10), new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, () -> "v" + loads.incrementAndGet());
+        
+        // Stale hits return the cached value at once and queue a single reload
+        assertEquals("v1", cache.get(1L, () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get(1L, () -> "v" + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+        assertEquals(1, scheduled.size());
+        
+        scheduled.get(0).run();
+        assertEquals("v2", cache.get(1L, Object.class));
+        assertEquals("v2", cache.get(1L, () -> "v" + loads.incrementAndGet()));
+        assertEquals(2, scheduled.size());
+    }
+    
+    @Test
+    void testRejectedRefreshServesCachedValueAndRetriesLater() {
+        AtomicInteger rejected = new AtomicInteger();
+        cache = new TwoTierCache("patients", local, remote, null, null, breaker(), Duration.ofNanos(1), task -> {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("full");
+        }, Duration.ofSeconds(10), new SimpleMeterRegistry());
+        cache.get(1L, () -> "v1");
+        
+        assertEquals("v1", cache.get(1L, () -> "v2"));
+        assertEquals("v1", cache.get(1L, () -> "v2"));
+        assertEquals(2, rejected.get());
+    }
+    
+    @Test
+    void testNotFoundIsCachedUntilKeyIsEvicted() {
+        cache = new TwoTierCache("patients", local, remote, new ConcurrentMapCache("not-found", false),
+                null, breaker(), Duration.ZERO, Runnable::run, Duration.ofSeconds(10), new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+        
+        for (int i = 0; i < 3; i++) {
+            Cache.ValueRetrievalException e = assertThrows(Cache.ValueRetrievalException.class,
+                    () -> cache.get(99L, () -> {
+                        loads.incrementAndGet();
+                        throw new ResourceNotFoundException("Patient not found with ID: 99");
+                    }));
+            assertEquals("Patient not found with ID: 99", e.getCause().getMessage());
+        }
+        assertEquals(1, loads.get());
+        
+        cache.evict(99L);
+        
+        assertEquals("Jane", cache.get(99L, () -> "Jane"));
+    }
+    
+    @Test
+    void testRedisOutageFallsBackToLocalAndReplaysEvictions() {
+        Cache failing = mock(Cache.class);
+        when(failing.get(any())).thenThrow(new RedisConnectionFailureException("down"));
+        doThrow(new RedisConnectionFailureException("down")).when(failing).put(any(), any());
+        doThrow(new RedisConnectionFailureException("down")).when(failing).evict(any());
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(1, 60, 100);
+        cache = new TwoTierCache("patients", local, failing, null, null, breaker, Duration.ZERO,
+                Runnable::run, Duration.ofSeconds(10), new SimpleMeterRegistry());
+        breaker.onRecovery(cache::resync);
+        
+        assertEquals("John", cache.get(1L, () -> "John"));
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals("John", cache.get(1L, () -> "other"));
+        cache.evict(1L);
+        verify(failing, times(1)).get(any());
+        assertEquals(1, cache.getPendingResyncCount());
+        
+        doNothing().when(failing).evict(any());
+        breaker.recordSuccess();
+        
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, cache.getPendingResyncCount());
+        verify(failing).evict("1");
+    }
+    
+    @Test
+    void testUnreadableRedisEntryIsAMissAndReleasesTheProbe() {
+        Cache corrupt = mock(Cache.class);
+        when(corrupt.get(any())).thenThrow(new SerializationException("bad Smile header"));
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(1, 0, 100);
+        cache = new TwoTierCache("patients", local, corrupt, null, null, breaker, Duration.ZERO,
+                Runnable::run, Duration.ofSeconds(10), new SimpleMeterRegistry());
+        breaker.recordFailure(new RedisConnectionFailureException("down"));
+        
+        assertEquals("John", cache.get(1L, () -> "John"));
+        
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        verify(corrupt).evict(1L);
+        verify(corrupt).put(1L, "John");
+    }
+    
+    @Test
+    void testStatisticsCountHitsPerTier() {
+        remote.put(2L, "Jane");
+        
+        cache.get(1L, () -> "John");
+        cache.get(1L, () -> "John");
+        cache.get(2L, () -> "other");
+        
+        TwoTierCache.Statistics statistics = cache.statistics();
+        assertEquals(1, statistics.localHits());
+        assertEquals(2, statistics.localMisses());
+        assertEquals(1, statistics.remoteHits());
+        assertEquals(1, statistics.remoteMisses());
+        assertEquals(1, statistics.loads());
+        assertEquals(2, statistics.localSize());
+    }
+    
+    private static RedisCircuitBreaker breaker() {
+        return new RedisCircuitBreaker(3, 10, 100);
+    }
+}
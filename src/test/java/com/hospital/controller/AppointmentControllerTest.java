@@ -0,0 +1,47 @@
+package com.hospital.controller;
+
+import com.hospital.dto.AppointmentDTO;
+import com.hospital.repository.VersionStamp;
+import com.hospital.service.AppointmentService;
+import com.hospital.util.ETags;
+import com.hospital.util.FieldSelection;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AppointmentController conditional GET
+ */
+class AppointmentControllerTest {
+    
+    @Test
+    void testMatchingIfNoneMatchReturns304WithoutLoadingPage() {
+        AppointmentService appointmentService = mock(AppointmentService.class);
+        AppointmentController controller = new AppointmentController(appointmentService);
+        Pageable page = PageRequest.of(0, 20);
+        VersionStamp stamp = new VersionStamp(5, -17);
+        when(appointmentService.getDoctorAppointmentsVersion(1L)).thenReturn(stamp);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/appointments/doctor/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH,
+                ETags.forPage("doctor-appointments", stamp, page, 1L, FieldSelection.all()));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        ResponseEntity<Page<AppointmentDTO>> result = controller.getDoctorAppointments(1L, page, null,
+                new ServletWebRequest(request, response));
+        
+        assertNull(result);
+        assertEquals(304, response.getStatus());
+        verify(appointmentService, never()).getDoctorAppointments(anyLong(), any(), any());
+    }
+}
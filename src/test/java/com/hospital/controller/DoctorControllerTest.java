@@ -0,0 +1,73 @@
+package com.hospital.controller;
+
+import com.hospital.dto.DoctorDTO;
+import com.hospital.repository.VersionStamp;
+import com.hospital.service.DoctorService;
+import com.hospital.util.ETags;
+import com.hospital.util.FieldSelection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DoctorController conditional GET
+ */
+class DoctorControllerTest {
+    
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+    
+    private DoctorService doctorService;
+    private DoctorController controller;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    
+    @BeforeEach
+    void setUp() {
+        doctorService = mock(DoctorService.class);
+        controller = new DoctorController(doctorService);
+        request = new MockHttpServletRequest("GET", "/doctors");
+        response = new MockHttpServletResponse();
+        when(doctorService.getDoctorsVersion()).thenReturn(new VersionStamp(1, 42));
+    }
+    
+    @Test
+    void testMatchingIfNoneMatchReturns304WithoutLoadingPage() {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH,
+                ETags.forPage("doctors", new VersionStamp(1, 42), PAGE, FieldSelection.all()));
+        
+        ResponseEntity<Page<DoctorDTO>> result = controller.getAllDoctors(PAGE, null, new ServletWebRequest(request, response));
+        
+        assertNull(result);
+        assertEquals(304, response.getStatus());
+        verify(doctorService, never()).getAllDoctors(any(), any());
+    }
+    
+    @Test
+    void testStaleIfNoneMatchLoadsPage() {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH,
+                ETags.forPage("doctors", new VersionStamp(1, 41), PAGE, FieldSelection.all()));
+        Page<DoctorDTO> page = new PageImpl<>(List.of(new DoctorDTO()), PAGE, 1);
+        when(doctorService.getAllDoctors(PAGE, FieldSelection.all())).thenReturn(page);
+        
+        ResponseEntity<Page<DoctorDTO>> result = controller.getAllDoctors(PAGE, null, new ServletWebRequest(request, response));
+        
+        assertEquals(200, result.getStatusCode().value());
+        assertSame(page, result.getBody());
+        assertEquals(ETags.forPage("doctors", new VersionStamp(1, 42), PAGE, FieldSelection.all()),
+                response.getHeader(HttpHeaders.ETAG));
+    }
+}
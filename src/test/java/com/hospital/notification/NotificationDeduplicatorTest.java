@@ -0,0 +1,51 @@
+package com.hospital.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for NotificationDeduplicator
+ */
+class NotificationDeduplicatorTest {
+    
+    private final SmsDispatcher smsDispatcher = mock(SmsDispatcher.class);
+    private final NotificationDeduplicator deduplicator =
+            new NotificationDeduplicator(smsDispatcher, new SimpleMeterRegistry(), 24, 1000);
+    
+    @Test
+    void testRendersAndQueuesMessage() {
+        deduplicator.submit(1L, 10L, confirmation("Tue 11:00"));
+        
+        ArgumentCaptor<SmsMessage> captor = ArgumentCaptor.forClass(SmsMessage.class);
+        verify(smsDispatcher).submit(captor.capture());
+        assertEquals("+15550100", captor.getValue().to());
+        assertTrue(captor.getValue().body().contains("Tue 11:00"));
+    }
+    
+    @Test
+    void testIdenticalMessageIsSentOnce() {
+        deduplicator.submit(1L, 10L, confirmation("Mon 09:00"));
+        deduplicator.submit(1L, 10L, confirmation("Mon 09:00"));
+        deduplicator.submit(2L, 20L, confirmation("Mon 09:00"));
+        
+        verify(smsDispatcher, times(2)).submit(any(SmsMessage.class));
+    }
+    
+    @Test
+    void testChangedMessageIsSentAgain() {
+        deduplicator.submit(1L, 10L, confirmation("Mon 09:00"));
+        deduplicator.submit(1L, 10L, new AppointmentNotification(
+                AppointmentNotification.Type.CANCELLATION, "+15550100", "Smith", null));
+        
+        verify(smsDispatcher, times(2)).submit(any(SmsMessage.class));
+    }
+    
+    private static AppointmentNotification confirmation(String dateTime) {
+        return new AppointmentNotification(AppointmentNotification.Type.CONFIRMATION, "+15550100", "Smith", dateTime);
+    }
+}
@@ -0,0 +1,79 @@
+package com.hospital.notification;
+
+import com.hospital.config.SmsProperties;
+import com.hospital.entity.SmsDeadLetter;
+import com.hospital.repository.SmsDeadLetterRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SmsDispatcher
+ */
+class SmsDispatcherTest {
+    
+    private final SmsDeadLetterRepository deadLetterRepository = mock(SmsDeadLetterRepository.class);
+    private final SmsProperties properties = new SmsProperties();
+    private SmsDispatcher dispatcher;
+    
+    @BeforeEach
+    void setUp() {
+        properties.setWorkers(1);
+        properties.setRatePerSecond(1000);
+        properties.setBurst(100);
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(10));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+    
+    @Test
+    void testTransientFailureIsRetried() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch delivered = new CountDownLatch(1);
+        dispatcher = new SmsDispatcher(message -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new SmsGatewayException("Too many requests", true, null);
+            }
+            delivered.countDown();
+            return "SM1";
+        }, deadLetterRepository, properties, new SimpleMeterRegistry());
+        
+        assertTrue(dispatcher.submit(new SmsMessage("+15550100", "Hello")));
+        
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(3, calls.get());
+        verifyNoInteractions(deadLetterRepository);
+    }
+    
+    @Test
+    void testPermanentFailureIsDeadLettered() {
+        AtomicInteger calls = new AtomicInteger();
+        dispatcher = new SmsDispatcher(message -> {
+            calls.incrementAndGet();
+            throw new SmsGatewayException("Invalid number", false, null);
+        }, deadLetterRepository, properties, new SimpleMeterRegistry());
+        
+        dispatcher.submit(new SmsMessage("+15550100", "Hello"));
+        
+        ArgumentCaptor<SmsDeadLetter> captor = ArgumentCaptor.forClass(SmsDeadLetter.class);
+        verify(deadLetterRepository, timeout(5000)).save(captor.capture());
+        assertEquals("+15550100", captor.getValue().getRecipient());
+        assertEquals(1, captor.getValue().getAttempts());
+        assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,98 @@
+package com.hospital.outbox;
+
+import com.hospital.entity.OutboxEvent;
+import com.hospital.repository.OutboxEventRepository;
+import com.hospital.service.SmsNotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AppointmentSmsHandler
+ */
+class AppointmentSmsHandlerTest {
+    
+    private static final LocalDateTime WINDOW_ELAPSED = LocalDateTime.now().minusMinutes(5);
+    
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    private final SmsNotificationService smsNotificationService = mock(SmsNotificationService.class);
+    private final AppointmentSmsHandler handler = new AppointmentSmsHandler(outboxService, repository,
+            smsNotificationService, new SimpleMeterRegistry(), 60);
+    private final List<OutboxEvent> history = new ArrayList<>();
+    
+    @Test
+    void testHandlerDoesNotCompleteWhileWindowIsOpen() throws Exception {
+        OutboxEvent booked = event(1L, AppointmentEvent.BOOKED, LocalDateTime.now());
+        OutboxPoller poller = new OutboxPoller(repository, List.of(handler), null, new SimpleMeterRegistry(),
+                100, 10, 5, 1000, 60000, 168);
+        when(repository.lockDueEvents(any(LocalDateTime.class), anyInt())).thenReturn(List.of(booked));
+        
+        poller.processBatch();
+        
+        assertEquals(OutboxEvent.Status.PENDING, booked.getStatus());
+        assertFalse(booked.getCompletedHandlers().contains(handler.getName()));
+        assertEquals(0, booked.getAttempts());
+        assertTrue(booked.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(50)));
+        verifyNoInteractions(smsNotificationService);
+    }
+    
+    @Test
+    void testBookingCancelledWithinWindowSendsNothing() throws Exception {
+        OutboxEvent booked = event(1L, AppointmentEvent.BOOKED, WINDOW_ELAPSED);
+        OutboxEvent cancelled = event(2L, AppointmentEvent.CANCELLED, WINDOW_ELAPSED);
+        
+        handler.handle(booked);
+        complete(booked);
+        assertTrue(booked.getCompletedHandlers().contains("appointment-sms:superseded"));
+        
+        handler.handle(cancelled);
+        
+        verifyNoInteractions(smsNotificationService);
+    }
+    
+    @Test
+    void testCancellationIsSentWhenBookingWasConfirmed() throws Exception {
+        OutboxEvent booked = event(1L, AppointmentEvent.BOOKED, WINDOW_ELAPSED);
+        handler.handle(booked);
+        complete(booked);
+        verify(smsNotificationService).sendAppointmentConfirmation(eq(5L), eq(7L), eq("+15550100"),
+                eq("Jane Smith"), anyString());
+        
+        handler.handle(event(2L, AppointmentEvent.CANCELLED, WINDOW_ELAPSED));
+        
+        verify(smsNotificationService).sendAppointmentCancellation(5L, 7L, "+15550100", "Jane Smith");
+    }
+    
+    private OutboxEvent event(Long id, String type, LocalDateTime createdAt) throws Exception {
+        OutboxEvent event = OutboxEvent.builder()
+                .id(id)
+                .aggregateType(AppointmentEvent.AGGREGATE_TYPE)
+                .aggregateId(7L)
+                .eventType(type)
+                .payload("{}")
+                .createdAt(createdAt)
+                .nextAttemptAt(createdAt)
+                .build();
+        history.add(event);
+        when(repository.findByAggregateTypeAndAggregateIdOrderByIdAsc(AppointmentEvent.AGGREGATE_TYPE, 7L))
+                .thenReturn(history);
+        when(outboxService.readPayload(event, AppointmentEvent.class)).thenReturn(new AppointmentEvent(
+                7L, 5L, 3L, "+15550100", "Jane Smith", LocalDateTime.of(2026, 3, 2, 9, 0), "SCHEDULED"));
+        return event;
+    }
+    
+    private void complete(OutboxEvent event) {
+        event.getCompletedHandlers().add(handler.getName());
+    }
+}
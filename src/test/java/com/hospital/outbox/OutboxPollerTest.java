@@ -0,0 +1,105 @@
+package com.hospital.outbox;
+
+import com.hospital.entity.OutboxEvent;
+import com.hospital.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OutboxPoller
+ */
+class OutboxPollerTest {
+    
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    
+    @Test
+    void testFailedHandlerIsRetriedWithoutRerunningOthers() {
+        OutboxEvent event = event();
+        when(repository.lockDueEvents(any(LocalDateTime.class), anyInt())).thenReturn(List.of(event));
+        RecordingHandler sms = new RecordingHandler("sms", 1);
+        RecordingHandler cache = new RecordingHandler("cache", 0);
+        OutboxPoller poller = poller(List.of(sms, cache), 5);
+        
+        poller.processBatch();
+        
+        assertEquals(OutboxEvent.Status.PENDING, event.getStatus());
+        assertEquals(1, event.getAttempts());
+        assertTrue(event.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertTrue(event.getLastError().startsWith("sms:"));
+        
+        poller.processBatch();
+        
+        assertEquals(OutboxEvent.Status.PROCESSED, event.getStatus());
+        assertNotNull(event.getProcessedAt());
+        assertEquals(2, sms.calls.size());
+        assertEquals(1, cache.calls.size());
+    }
+    
+    @Test
+    void testEventFailsAfterMaxAttempts() {
+        OutboxEvent event = event();
+        when(repository.lockDueEvents(any(LocalDateTime.class), anyInt())).thenReturn(List.of(event));
+        OutboxPoller poller = poller(List.of(new RecordingHandler("sms", Integer.MAX_VALUE)), 2);
+        
+        poller.processBatch();
+        poller.processBatch();
+        
+        assertEquals(OutboxEvent.Status.FAILED, event.getStatus());
+        assertEquals(2, event.getAttempts());
+    }
+    
+    private OutboxPoller poller(List<OutboxEventHandler> handlers, int maxAttempts) {
+        return new OutboxPoller(repository, handlers, null, new SimpleMeterRegistry(),
+                100, 10, maxAttempts, 1000, 60000, 168);
+    }
+    
+    private static OutboxEvent event() {
+        return OutboxEvent.builder()
+                .id(1L)
+                .aggregateType(AppointmentEvent.AGGREGATE_TYPE)
+                .aggregateId(7L)
+                .eventType(AppointmentEvent.BOOKED)
+                .payload("{}")
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+    
+    private static class RecordingHandler implements OutboxEventHandler {
+        
+        private final String name;
+        private final List<Long> calls = new ArrayList<>();
+        private int failuresLeft;
+        
+        RecordingHandler(String name, int failures) {
+            this.name = name;
+            this.failuresLeft = failures;
+        }
+        
+        @Override
+        public String getName() {
+            return name;
+        }
+        
+        @Override
+        public boolean supports(OutboxEvent event) {
+            return true;
+        }
+        
+        @Override
+        public void handle(OutboxEvent event) {
+            calls.add(event.getId());
+            if (failuresLeft-- > 0) {
+                throw new IllegalStateException("provider down");
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.hospital.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for JwtAuthenticationFilter
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+    
+    private static final String SECRET =
+            "test-secret-key-that-is-long-enough-for-the-hs512-algorithm-to-accept-it-0123456789";
+    
+    @Mock
+    private UserDetailsService userDetailsService;
+    
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    
+    private JwtTokenProvider jwtTokenProvider;
+    private JwtAuthenticationFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        JwtTokenVerifier jwtTokenVerifier = new JwtTokenVerifier(SECRET);
+        jwtTokenProvider = new JwtTokenProvider(jwtTokenVerifier);
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationMs", 60_000L);
+        PrincipalCache principalCache = new PrincipalCache(userDetailsService, new String[]{"/admin/**"}, 30, 100);
+        filter = new JwtAuthenticationFilter(jwtTokenVerifier, userDetailsService, principalCache,
+                tokenRevocationService);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void testAuthenticationIsBuiltFromClaimsWithoutLoadingUser() throws Exception {
+        String token = jwtTokenProvider.generateToken(new HospitalUserDetails(7L, "dr.house", "hash", true,
+                List.of(new SimpleGrantedAuthority("ROLE_DOCTOR"))));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/patients/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        HospitalUserDetails principal = (HospitalUserDetails) authentication.getPrincipal();
+        assertEquals("dr.house", principal.getUsername());
+        assertEquals(7L, principal.getId());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_DOCTOR")), List.copyOf(authentication.getAuthorities()));
+        verifyNoInteractions(userDetailsService);
+    }
+    
+    @Test
+    void testRevokedTokenLeavesRequestUnauthenticated() throws Exception {
+        String token = jwtTokenProvider.generateToken(new HospitalUserDetails(7L, "dr.house", "hash", true,
+                List.of(new SimpleGrantedAuthority("ROLE_DOCTOR"))));
+        when(tokenRevocationService.isRevoked(any())).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/patients/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+    
+    @Test
+    void testInvalidTokenLeavesRequestUnauthenticated() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/patients/1");
+        request.addHeader("Authorization", "Bearer not-a-token");
+        
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
@@ -0,0 +1,54 @@
+package com.hospital.security;
+
+import com.hospital.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LoginService
+ */
+class LoginServiceTest {
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    private LoginService loginService;
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        loginService.shutdown();
+    }
+    
+    @Test
+    void testLoginsBeyondPoolAndQueueAreRejected() throws Exception {
+        AuthenticationManager slowManager = authentication -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return UsernamePasswordAuthenticationToken.authenticated(authentication.getPrincipal(), null, List.of());
+        };
+        loginService = new LoginService(slowManager, new SimpleMeterRegistry(), 1, 1, 3);
+        
+        CompletableFuture<Authentication> running = loginService.authenticate("alice", "secret");
+        CompletableFuture<Authentication> queued = loginService.authenticate("bob", "secret");
+        ServiceOverloadedException e = assertThrows(ServiceOverloadedException.class,
+                () -> loginService.authenticate("carol", "secret"));
+        assertEquals(3, e.getRetryAfterSeconds());
+        
+        release.countDown();
+        assertEquals("alice", running.get(5, TimeUnit.SECONDS).getName());
+        assertEquals("bob", queued.get(5, TimeUnit.SECONDS).getName());
+    }
+}
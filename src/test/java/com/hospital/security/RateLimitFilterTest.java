@@ -0,0 +1,71 @@
+package com.hospital.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.config.RateLimitProperties;
+import com.hospital.config.RateLimitProperties.RouteGroup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RateLimitFilter
+ */
+class RateLimitFilterTest {
+    
+    private RateLimitFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        RouteGroup login = new RouteGroup();
+        login.setName("login");
+        login.setMethod("POST");
+        login.setPaths(List.of("/auth/login"));
+        login.setCapacity(1);
+        login.setRefillPerSecond(0.001);
+        login.setKeyBodyField("username");
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGroups(List.of(login));
+        filter = new RateLimitFilter(properties, null, null, new ObjectMapper().findAndRegisterModules(),
+                new SimpleMeterRegistry());
+    }
+    
+    @Test
+    void testLoginIsLimitedPerUsernameFromOneAddress() throws Exception {
+        assertEquals(200, login("alice").getStatus());
+        assertEquals(429, login("Alice").getStatus());
+        assertEquals(200, login("bob").getStatus());
+    }
+    
+    @Test
+    void testLoginBodyIsStillReadableDownstream() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(loginRequest("alice"), new MockHttpServletResponse(), chain);
+        
+        String body = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals("{\"username\":\"alice\",\"password\":\"secret\"}", body);
+    }
+    
+    private MockHttpServletResponse login(String username) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(loginRequest(username), response, new MockFilterChain());
+        return response;
+    }
+    
+    private static MockHttpServletRequest loginRequest(String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setServletPath("/auth/login");
+        request.setRemoteAddr("203.0.113.7");
+        request.setContentType("application/json");
+        request.setContent(("{\"username\":\"" + username + "\",\"password\":\"secret\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
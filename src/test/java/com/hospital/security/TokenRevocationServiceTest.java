@@ -0,0 +1,68 @@
+package com.hospital.security;
+
+import com.hospital.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TokenRevocationService
+ */
+class TokenRevocationServiceTest {
+    
+    private final RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+    private final Claims claims = Jwts.claims()
+            .id("token-1")
+            .subject("john")
+            .expiration(new Date(System.currentTimeMillis() + 60_000))
+            .build();
+    private TokenRevocationService service;
+    
+    @BeforeEach
+    void setUp() {
+        service = new TokenRevocationService(revokedTokenRepository, mock(JdbcTemplate.class), 1000, 0.01, 60);
+        // An empty filter, so unrevoked ids are answered without querying the table
+        service.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+    
+    @Test
+    void testRevocationTakesEffectLocallyOnCommit() {
+        service.revoke(claims);
+        
+        assertFalse(service.isRevoked(claims));
+        
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        
+        assertTrue(service.isRevoked(claims));
+        verify(revokedTokenRepository).save(any());
+        verify(revokedTokenRepository, never()).existsById(any());
+    }
+    
+    @Test
+    void testRolledBackRevocationIsNotApplied() {
+        service.revoke(claims);
+        
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        
+        assertFalse(service.isRevoked(claims));
+        verify(revokedTokenRepository, never()).existsById(any());
+    }
+}
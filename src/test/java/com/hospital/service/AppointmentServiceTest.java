@@ -6,9 +6,11 @@ import com.hospital.entity.Doctor;
 import com.hospital.entity.Patient;
 import com.hospital.exception.AppointmentBookingException;
 import com.hospital.exception.ResourceNotFoundException;
+import com.hospital.outbox.OutboxService;
 import com.hospital.repository.AppointmentRepository;
 import com.hospital.repository.DoctorRepository;
 import com.hospital.repository.PatientRepository;
+import com.hospital.repository.ProjectionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,7 +20,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -39,6 +43,15 @@ class AppointmentServiceTest {
     @Mock
     private DoctorRepository doctorRepository;
     
+    @Mock
+    private OutboxService outboxService;
+    
+    @Mock
+    private ProjectionRepository projectionRepository;
+    
+    @Mock
+    private BulkLookup bulkLookup;
+    
     @InjectMocks
     private AppointmentService appointmentService;
     
@@ -143,4 +156,26 @@ class AppointmentServiceTest {
         assertEquals("CANCELLED", result.getStatus());
         verify(appointmentRepository, times(1)).save(any(Appointment.class));
     }
+    
+    @Test
+    void testBulkLookupLoadsMissesWithAssociationsFetched() {
+        Appointment appointment = Appointment.builder()
+                .id(5L)
+                .patient(testPatient)
+                .doctor(testDoctor)
+                .appointmentDateTime(LocalDateTime.now().plusDays(1))
+                .status(Appointment.AppointmentStatus.SCHEDULED)
+                .build();
+        when(appointmentRepository.findAllWithPartiesByIdIn(List.of(5L))).thenReturn(List.of(appointment));
+        when(bulkLookup.findAll(any(), any(), any(), any())).thenAnswer(invocation -> {
+            Function<List<Long>, List<AppointmentDTO>> loader = invocation.getArgument(2);
+            return loader.apply(List.of(5L));
+        });
+        
+        List<AppointmentDTO> result = appointmentService.getAppointmentsByIds(List.of(5L));
+        
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getPatientId());
+        verify(appointmentRepository, never()).findAllById(any());
+    }
 }
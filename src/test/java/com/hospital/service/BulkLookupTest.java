@@ -0,0 +1,79 @@
+package com.hospital.service;
+
+import com.hospital.cache.TwoTierCache;
+import com.hospital.exception.BulkLookupLimitException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BulkLookup
+ */
+class BulkLookupTest {
+    
+    private ConcurrentMapCache remote;
+    private TwoTierCache cache;
+    private BulkLookup bulkLookup;
+    private List<List<Long>> queries;
+    
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("patients", false);
+        cache = new TwoTierCache("patients", new ConcurrentMapCache("patients", false), remote);
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache("patients")).thenReturn(cache);
+        bulkLookup = new BulkLookup(cacheManager, 5, 2);
+        queries = new ArrayList<>();
+    }
+    
+    @Test
+    void testLoadsMissesInChunksAndKeepsRequestOrder() {
+        cache.putLocalOnly("3", "patient-3");
+        
+        List<String> result = bulkLookup.findAll("patients", List.of(4L, 3L, 1L, 4L, 2L, 9L), loader(9L), this::idOf);
+        
+        assertEquals(List.of("patient-4", "patient-3", "patient-1", "patient-2"), result);
+        assertEquals(List.of(List.of(4L, 1L), List.of(2L, 9L)), queries);
+    }
+    
+    @Test
+    void testLoadedEntriesServeTheNextLookupFromLocalCacheOnly() {
+        bulkLookup.findAll("patients", List.of(1L, 2L), loader(), this::idOf);
+        queries.clear();
+        
+        assertEquals(List.of("patient-2", "patient-1"),
+                bulkLookup.findAll("patients", List.of(2L, 1L), loader(), this::idOf));
+        assertTrue(queries.isEmpty());
+        assertNull(remote.get(1L));
+    }
+    
+    @Test
+    void testRejectsTooManyIds() {
+        assertThrows(BulkLookupLimitException.class,
+                () -> bulkLookup.findAll("patients", List.of(1L, 2L, 3L, 4L, 5L, 6L), loader(), this::idOf));
+        assertTrue(queries.isEmpty());
+    }
+    
+    /**
+     * Loader returning "patient-{id}" for each id except the missing ones, recording each query
+     */
+    private Function<List<Long>, List<String>> loader(Long... missing) {
+        List<Long> unknown = List.of(missing);
+        return ids -> {
+            queries.add(List.copyOf(ids));
+            return ids.stream().filter(id -> !unknown.contains(id)).map(id -> "patient-" + id).toList();
+        };
+    }
+    
+    private Long idOf(String value) {
+        return Long.valueOf(value.substring("patient-".length()));
+    }
+}
@@ -0,0 +1,100 @@
+package com.hospital.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.exception.ErrorResponse;
+import com.hospital.exception.GlobalExceptionHandler;
+import com.hospital.exception.ResourceNotFoundException;
+import com.hospital.exception.UnsupportedExportFormatException;
+import com.hospital.service.ExportService.ExportEntity;
+import com.hospital.service.ExportService.ExportFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ExportService
+ */
+class ExportServiceTest {
+    
+    @Test
+    void testFormatIsResolvedCaseInsensitively() {
+        assertEquals(ExportFormat.CSV, ExportFormat.fromName("CSV"));
+        assertEquals(ExportEntity.MEDICAL_RECORDS, ExportEntity.fromPath("medical-records"));
+    }
+    
+    @Test
+    void testUnsupportedFormatIsABadRequest() {
+        UnsupportedExportFormatException e = assertThrows(UnsupportedExportFormatException.class,
+                () -> ExportFormat.fromName("xml"));
+        
+        ResponseEntity<ErrorResponse> response = new GlobalExceptionHandler().handleUnsupportedExportFormatException(
+                e, new ServletWebRequest(new MockHttpServletRequest("GET", "/admin/export/patients")));
+        
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("/admin/export/patients", response.getBody().getPath());
+    }
+    
+    @Test
+    void testNdjsonExportWritesOneLinePerRowAndFlushesOnce() throws Exception {
+        ResultSetMetaData meta = mock(ResultSetMetaData.class);
+        when(meta.getColumnCount()).thenReturn(2);
+        when(meta.getColumnLabel(1)).thenReturn("id");
+        when(meta.getColumnLabel(2)).thenReturn("first_name");
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getMetaData()).thenReturn(meta);
+        when(rs.next()).thenReturn(true, true, true, false);
+        when(rs.getObject(1)).thenReturn(1L, 2L, 3L);
+        when(rs.getObject(2)).thenReturn("John", "Jane", "Jim");
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(ps.executeQuery()).thenReturn(rs);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(ps);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        ExportService exportService = new ExportService(dataSource, mock(PlatformTransactionManager.class),
+                new ObjectMapper(), 1000);
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        AtomicInteger flushes = new AtomicInteger();
+        OutputStream out = new FilterOutputStream(bytes) {
+            @Override
+            public void flush() throws IOException {
+                flushes.incrementAndGet();
+                super.flush();
+            }
+        };
+        exportService.export(ExportEntity.PATIENTS, ExportFormat.NDJSON, null, out);
+        
+        String ndjson = new String(new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertEquals("{\"id\":1,\"first_name\":\"John\"}\n{\"id\":2,\"first_name\":\"Jane\"}\n"
+                + "{\"id\":3,\"first_name\":\"Jim\"}\n", ndjson);
+        assertTrue(flushes.get() <= 1, "flushed " + flushes.get() + " times");
+    }
+    
+    @Test
+    void testUnknownEntityIsNotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> ExportEntity.fromPath("invoices"));
+    }
+}
@@ -0,0 +1,139 @@
+package com.hospital.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.dto.BulkImportResultDTO;
+import com.hospital.dto.BulkImportResultDTO.LineError;
+import com.hospital.repository.DoctorRepository;
+import com.hospital.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MedicalRecordIngestionService
+ */
+class MedicalRecordIngestionServiceTest {
+    
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PatientRepository patientRepository = mock(PatientRepository.class);
+    private final DoctorRepository doctorRepository = mock(DoctorRepository.class);
+    private final List<PreparedStatement> insertedRows = new ArrayList<>();
+    private MedicalRecordIngestionService service;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        ReferenceIdCache referenceIdCache = new ReferenceIdCache(patientRepository, doctorRepository);
+        ReflectionTestUtils.setField(referenceIdCache, "maxSize", 1000);
+        service = new MedicalRecordIngestionService(jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), referenceIdCache,
+                new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 100);
+        
+        when(patientRepository.findExistingIds(anyCollection())).thenAnswer(invocation ->
+                existing(invocation.getArgument(0), List.of(1L, 2L)));
+        when(doctorRepository.findExistingIds(anyCollection())).thenAnswer(invocation ->
+                existing(invocation.getArgument(0), List.of(10L)));
+        // Run the batch setter for every row, so the bound parameters can be inspected
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            Collection<Object> rows = invocation.getArgument(1);
+            ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+            for (Object row : rows) {
+                PreparedStatement ps = mock(PreparedStatement.class);
+                setter.setValues(ps, row);
+                insertedRows.add(ps);
+            }
+            return new int[][]{new int[rows.size()]};
+        });
+    }
+    
+    @Test
+    void testBadRowsAreReportedAndGoodRowsSaved() throws Exception {
+        BulkImportResultDTO result = service.ingest(ndjson(
+                "{\"patientId\": 1, \"doctorId\": 10, \"diagnosis\": \"Flu\"}",
+                "{\"patientId\": 1, \"doctorId\": ",
+                "",
+                "{\"patientId\": 2, \"diagnosis\": \"Cold\"}",
+                "{\"patientId\": 2, \"doctorId\": 10, \"diagnosis\": \"Cold\"}"));
+        
+        assertEquals(4, result.getTotalLines());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(2L, 4L), result.getErrors().stream().map(LineError::getLine).toList());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+        assertEquals("patientId and doctorId are required", result.getErrors().get(1).getMessage());
+        assertEquals(2, insertedRows.size());
+        verify(insertedRows.get(0)).setString(3, "Flu");
+        verify(insertedRows.get(1)).setString(3, "Cold");
+    }
+    
+    @Test
+    void testUnknownReferencesAreResolvedThroughIdCache() throws Exception {
+        BulkImportResultDTO result = service.ingest(ndjson(
+                "{\"patientId\": 1, \"doctorId\": 10}",
+                "{\"patientId\": 99, \"doctorId\": 10}",
+                "{\"patientId\": 1, \"doctorId\": 77}",
+                "{\"patientId\": 1, \"doctorId\": 10}"));
+        
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(new LineError(2, "Patient not found with ID: 99"),
+                new LineError(3, "Doctor not found with ID: 77")), result.getErrors());
+        // Known ids are served from the cache; only the ids not yet confirmed are queried
+        verify(patientRepository).findExistingIds(argThat(ids -> ids.containsAll(List.of(1L, 99L))));
+        verify(patientRepository, never()).findExistingIds(argThat(ids -> ids.size() == 1 && ids.contains(1L)));
+        verify(doctorRepository).findExistingIds(argThat(ids -> ids.size() == 1 && ids.contains(77L)));
+        verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+    }
+    
+    @Test
+    void testRecordedAtDefaultsToIngestionTime() throws Exception {
+        LocalDateTime before = LocalDateTime.now();
+        
+        service.ingest(ndjson(
+                "{\"patientId\": 1, \"doctorId\": 10}",
+                "{\"patientId\": 1, \"doctorId\": 10, \"recordedAt\": \"2024-05-01 08:30:00\"}"));
+        
+        Timestamp defaulted = boundTimestamp(insertedRows.get(0), 9);
+        assertFalse(defaulted.toLocalDateTime().isBefore(before));
+        assertEquals(boundTimestamp(insertedRows.get(0), 10), defaulted);
+        assertEquals(Timestamp.valueOf(LocalDateTime.of(2024, 5, 1, 8, 30)),
+                boundTimestamp(insertedRows.get(1), 9));
+    }
+    
+    private static Timestamp boundTimestamp(PreparedStatement ps, int index) throws Exception {
+        ArgumentCaptor<Timestamp> captor = ArgumentCaptor.forClass(Timestamp.class);
+        verify(ps).setTimestamp(eq(index), captor.capture());
+        return captor.getValue();
+    }
+    
+    private static List<Long> existing(Collection<Long> ids, List<Long> known) {
+        return ids.stream().filter(known::contains).toList();
+    }
+    
+    private static ByteArrayInputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
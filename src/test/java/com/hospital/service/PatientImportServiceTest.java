@@ -0,0 +1,159 @@
+package com.hospital.service;
+
+import com.hospital.dto.BulkImportResultDTO;
+import com.hospital.dto.BulkImportResultDTO.LineError;
+import com.hospital.service.UniquenessGuard.Field;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PatientImportService
+ */
+class PatientImportServiceTest {
+    
+    private static final String HEADER = "first_name,lastName,email,phone,age";
+    
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final UniquenessGuard uniquenessGuard = mock(UniquenessGuard.class);
+    private final List<String> batchedEmails = new ArrayList<>();
+    private final List<String> singleEmails = new ArrayList<>();
+    private PatientImportService service;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new PatientImportService(jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                Validation.buildDefaultValidatorFactory().getValidator(), uniquenessGuard);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 100);
+        
+        // One patient already in the database
+        doAnswer(invocation -> {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString(1)).thenReturn("taken@example.com");
+            when(rs.getString(2)).thenReturn("5550000000");
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(eq("SELECT email, phone FROM patients"), any(RowCallbackHandler.class));
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            Collection<Object> rows = invocation.getArgument(1);
+            ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+            for (Object row : rows) {
+                batchedEmails.add(boundEmail(ps -> setter.setValues(ps, row)));
+            }
+            return new int[][]{new int[rows.size()]};
+        });
+    }
+    
+    @Test
+    void testDuplicatesAgainstDatabaseAndWithinFileAreReported() throws Exception {
+        BulkImportResultDTO result = service.importPatients(csv(
+                "Ann,Lee,ann@example.com,5550000001,30",
+                "Bob,Ray,taken@example.com,5550000002,40",
+                "Cy,Fox,cy@example.com,5550000000,50",
+                "Di,Ng,ANN-copy@example.com,5550000001,20",
+                "Ed,Oh,ann@example.com,5550000003,20",
+                "Fay,Po,fay@example.com,5550000004,abc",
+                "Gus,Qi,not-an-email,5550000005,20",
+                "Hal,Ru,hal@example.com,5550000006,20"));
+        
+        assertEquals(8, result.getTotalLines());
+        assertEquals(2, result.getImported());
+        assertEquals(6, result.getFailed());
+        assertEquals(List.of(
+                new LineError(3, "Patient with email taken@example.com already exists"),
+                new LineError(4, "Patient with phone 5550000000 already exists"),
+                new LineError(5, "Patient with phone 5550000001 already exists"),
+                new LineError(6, "Patient with email ann@example.com already exists"),
+                new LineError(7, "Invalid age: For input string: \"abc\""),
+                new LineError(8, "email: Email should be valid")), result.getErrors());
+        assertEquals(List.of("ann@example.com", "hal@example.com"), batchedEmails);
+        verify(uniquenessGuard).record(Field.PATIENT_EMAIL, "hal@example.com");
+        verify(uniquenessGuard).record(Field.PATIENT_PHONE, "5550000006");
+    }
+    
+    @Test
+    void testFailedBatchIsRetriedRowByRow() throws Exception {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenThrow(new DataIntegrityViolationException("batch failed"));
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+            String email = boundEmail(invocation.getArgument(1));
+            if (email.startsWith("bad")) {
+                throw new DataIntegrityViolationException("row failed",
+                        new SQLException("value too long for type character varying(255)"));
+            }
+            singleEmails.add(email);
+            return 1;
+        });
+        
+        BulkImportResultDTO result = service.importPatients(csv(
+                "Ann,Lee,ann@example.com,5550000001,30",
+                "Bob,Ray,bad@example.com,5550000002,40",
+                "Cy,Fox,cy@example.com,5550000003,50"));
+        
+        assertEquals(3, result.getTotalLines());
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(new LineError(3, "value too long for type character varying(255)")), result.getErrors());
+        assertEquals(List.of("ann@example.com", "cy@example.com"), singleEmails);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        verify(uniquenessGuard, never()).record(Field.PATIENT_EMAIL, "bad@example.com");
+        verify(uniquenessGuard).record(Field.PATIENT_EMAIL, "cy@example.com");
+    }
+    
+    @Test
+    void testErrorReportIsTruncatedButFailuresAreCounted() throws Exception {
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 1);
+        
+        BulkImportResultDTO result = service.importPatients(csv(
+                ",Lee,ann@example.com,5550000001,30",
+                "Bob,Ray,bob@example.com,123,40",
+                "Cy,Fox,cy@example.com,5550000003,50"));
+        
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(new LineError(2, "firstName: First name cannot be blank")), result.getErrors());
+        assertTrue(result.isErrorsTruncated());
+    }
+    
+    /**
+     * Email bound by an insert statement setter
+     */
+    private static String boundEmail(PreparedStatementSetter setter) throws SQLException {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.setValues(ps);
+        ArgumentCaptor<String> email = ArgumentCaptor.forClass(String.class);
+        verify(ps).setString(eq(3), email.capture());
+        return email.getValue();
+    }
+    
+    private static ByteArrayInputStream csv(String... rows) {
+        return new ByteArrayInputStream((HEADER + "\n" + String.join("\n", rows)).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,181 @@
+package com.hospital.service;
+
+import com.hospital.dto.AppointmentDTO;
+import com.hospital.dto.MedicalRecordDTO;
+import com.hospital.dto.PatientDTO;
+import com.hospital.dto.PatientHistoryDTO;
+import com.hospital.dto.TimelineEntryDTO;
+import com.hospital.entity.Patient;
+import com.hospital.exception.DuplicateResourceException;
+import com.hospital.repository.PatientRepository;
+import com.hospital.repository.ProjectionRepository;
+import com.hospital.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PatientService
+ */
+@ExtendWith(MockitoExtension.class)
+class PatientServiceTest {
+    
+    private static final LocalDateTime T = LocalDateTime.of(2026, 3, 1, 9, 0);
+    
+    @Mock
+    private PatientRepository patientRepository;
+    
+    @Mock
+    private ProjectionRepository projectionRepository;
+    
+    @Mock
+    private BulkLookup bulkLookup;
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private ReferenceIdCache referenceIdCache;
+    
+    @Mock
+    private UniquenessGuard uniquenessGuard;
+    
+    @Mock
+    private AppointmentService appointmentService;
+    
+    @Mock
+    private MedicalRecordService medicalRecordService;
+    
+    @InjectMocks
+    private PatientService patientService;
+    
+    @BeforeEach
+    void setUp() {
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(Patient.builder().id(1L).build()));
+    }
+    
+    @Test
+    void testHistoryPagingDoesNotSkipEntriesSharingTheBoundaryTimestamp() {
+        // Five entries share T (as bulk-ingested records without recordedAt do), one is older
+        List<AppointmentDTO> appointments = List.of(appointment(1L, T), appointment(2L, T), appointment(3L, T),
+                appointment(4L, T.minusDays(1)));
+        List<MedicalRecordDTO> records = List.of(record(10L, T), record(11L, T));
+        when(appointmentService.getPatientTimeline(eq(1L), any(), any(), anyLong(), anyInt()))
+                .thenAnswer(timeline(appointments, AppointmentDTO::getAppointmentDateTime, AppointmentDTO::getId));
+        when(medicalRecordService.getPatientTimeline(eq(1L), any(), any(), anyLong(), anyInt()))
+                .thenAnswer(timeline(records, MedicalRecordDTO::getRecordedAt, MedicalRecordDTO::getId));
+        
+        List<String> seen = new ArrayList<>();
+        PatientHistoryDTO page = patientService.getPatientHistory(1L, null, null, null, null, 2);
+        while (true) {
+            page.getEntries().forEach(entry -> seen.add(entry.getType() + ":" + entry.getId()));
+            if (!page.isHasMore()) {
+                break;
+            }
+            page = patientService.getPatientHistory(1L, null, page.getNextBefore(),
+                    page.getNextBeforeType(), page.getNextBeforeId(), 2);
+        }
+        
+        assertEquals(List.of(
+                TimelineEntryDTO.MEDICAL_RECORD + ":11", TimelineEntryDTO.MEDICAL_RECORD + ":10",
+                TimelineEntryDTO.APPOINTMENT + ":3", TimelineEntryDTO.APPOINTMENT + ":2",
+                TimelineEntryDTO.APPOINTMENT + ":1", TimelineEntryDTO.APPOINTMENT + ":4"), seen);
+    }
+    
+    @Test
+    void testPlainBeforeIsAnExclusiveTimeBound() {
+        when(appointmentService.getPatientTimeline(eq(1L), any(), any(), anyLong(), anyInt()))
+                .thenAnswer(timeline(List.of(appointment(1L, T), appointment(2L, T.minusHours(1))),
+                        AppointmentDTO::getAppointmentDateTime, AppointmentDTO::getId));
+        when(medicalRecordService.getPatientTimeline(eq(1L), any(), any(), anyLong(), anyInt()))
+                .thenReturn(List.of());
+        
+        PatientHistoryDTO page = patientService.getPatientHistory(1L, null, T, null, null, 10);
+        
+        assertEquals(1, page.getEntries().size());
+        assertEquals(2L, page.getEntries().get(0).getId());
+        assertFalse(page.isHasMore());
+    }
+    
+    @Test
+    void testUniqueViolationOnPhoneIsReportedAsDuplicate() {
+        when(patientRepository.saveAndFlush(any())).thenThrow(integrityViolation("23505", Patient.PHONE_CONSTRAINT));
+        
+        DuplicateResourceException e = assertThrows(DuplicateResourceException.class,
+                () -> patientService.updatePatient(1L, update()));
+        assertEquals("Patient with phone 5551234567 already exists", e.getMessage());
+    }
+    
+    @Test
+    void testOtherIntegrityViolationsAreNotReportedAsDuplicates() {
+        DataIntegrityViolationException notNull = integrityViolation("23502", null);
+        when(patientRepository.saveAndFlush(any())).thenThrow(notNull);
+        
+        assertSame(notNull, assertThrows(DataIntegrityViolationException.class,
+                () -> patientService.updatePatient(1L, update())));
+    }
+    
+    private static PatientDTO update() {
+        return PatientDTO.builder().firstName("John").lastName("Doe").email("john@example.com")
+                .phone("5551234567").build();
+    }
+    
+    /**
+     * The exception Spring translates a Hibernate constraint violation into on flush
+     */
+    private static DataIntegrityViolationException integrityViolation(String sqlState, String constraint) {
+        SQLException sqlException = new SQLException("violation", sqlState);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, constraint));
+    }
+    
+    /**
+     * Answers a timeline query like the repository does: entries in [from, before) plus those at
+     * exactly before with an id below beforeId, newest first with ties by descending id
+     */
+    private static <R> Answer<List<R>> timeline(List<R> rows, Function<R, LocalDateTime> timestamp,
+                                                Function<R, Long> id) {
+        return invocation -> {
+            LocalDateTime from = invocation.getArgument(1);
+            LocalDateTime before = invocation.getArgument(2);
+            long beforeId = invocation.getArgument(3);
+            int limit = invocation.getArgument(4);
+            return rows.stream()
+                    .filter(row -> !timestamp.apply(row).isBefore(from))
+                    .filter(row -> timestamp.apply(row).isBefore(before)
+                            || (timestamp.apply(row).isEqual(before) && id.apply(row) < beforeId))
+                    .sorted(Comparator.comparing(timestamp).thenComparing(id).reversed())
+                    .limit(limit)
+                    .toList();
+        };
+    }
+    
+    private static AppointmentDTO appointment(Long id, LocalDateTime at) {
+        return AppointmentDTO.builder().id(id).appointmentDateTime(at).build();
+    }
+    
+    private static MedicalRecordDTO record(Long id, LocalDateTime at) {
+        return MedicalRecordDTO.builder().id(id).recordedAt(at).build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.hospital.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BloomFilter
+ */
+class BloomFilterTest {
+    
+    @Test
+    void testNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("patient" + i + "@example.com");
+        }
+        
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("patient" + i + "@example.com"));
+        }
+    }
+    
+    @Test
+    void testFalsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("patient" + i + "@example.com");
+        }
+        
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        
+        assertTrue(falsePositives < 300, "False positives: " + falsePositives);
+    }
+    
+    @Test
+    void testInvalidArgumentsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+    }
+}
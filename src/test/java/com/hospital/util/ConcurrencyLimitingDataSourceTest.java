@@ -0,0 +1,67 @@
+package com.hospital.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ConcurrencyLimitingDataSource
+ */
+class ConcurrencyLimitingDataSourceTest {
+    
+    @Test
+    void testConnectionsBeyondLimitTimeOutUntilOneIsClosed() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 2, 10);
+        
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        
+        first.close();
+        first.close();
+        assertEquals(1, dataSource.getAvailablePermits());
+        assertNotNull(dataSource.getConnection());
+        verify(connection, times(2)).close();
+    }
+    
+    @Test
+    void testProxyHasItsOwnIdentityAndUnwrapsToTarget() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        Runnable vendorConnection = () -> {
+        };
+        when(connection.unwrap(Runnable.class)).thenReturn(vendorConnection);
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 2, 10);
+        
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        
+        assertEquals(first, first);
+        assertNotEquals(first, second);
+        assertNotEquals(first, connection);
+        assertEquals(System.identityHashCode(first), first.hashCode());
+        assertSame(first, first.unwrap(Connection.class));
+        assertTrue(first.isWrapperFor(Connection.class));
+        assertSame(vendorConnection, first.unwrap(Runnable.class));
+    }
+    
+    @Test
+    void testPermitIsReleasedWhenTargetFails() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 1, 10);
+        
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+}
@@ -0,0 +1,52 @@
+package com.hospital.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CsvReader
+ */
+class CsvReaderTest {
+    
+    @Test
+    void testReadsSimpleRecords() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("firstName,lastName\nJohn,Doe\r\nJane,Smith"));
+        
+        assertEquals(List.of("firstName", "lastName"), reader.readRecord());
+        assertEquals(List.of("John", "Doe"), reader.readRecord());
+        assertEquals(List.of("Jane", "Smith"), reader.readRecord());
+        assertEquals(3, reader.getRecordLineNumber());
+        assertNull(reader.readRecord());
+    }
+    
+    @Test
+    void testReadsQuotedFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "\"Doe, John\",\"said \"\"hi\"\"\",\"line1\nline2\"\nnext,row\n"));
+        
+        assertEquals(List.of("Doe, John", "said \"hi\"", "line1\nline2"), reader.readRecord());
+        assertEquals(1, reader.getRecordLineNumber());
+        assertEquals(List.of("next", "row"), reader.readRecord());
+        assertEquals(3, reader.getRecordLineNumber());
+        assertNull(reader.readRecord());
+    }
+    
+    @Test
+    void testKeepsEmptyFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,,c,\n"));
+        
+        assertEquals(List.of("a", "", "c", ""), reader.readRecord());
+    }
+    
+    @Test
+    void testUnterminatedQuoteFails() {
+        CsvReader reader = new CsvReader(new StringReader("\"open,field\n"));
+        
+        assertThrows(IOException.class, reader::readRecord);
+    }
+}
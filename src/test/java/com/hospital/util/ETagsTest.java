@@ -0,0 +1,59 @@
+package com.hospital.util;
+
+import com.hospital.repository.VersionStamp;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ETags
+ */
+class ETagsTest {
+    
+    private static final VersionStamp STAMP = new VersionStamp(3, 42);
+    
+    @Test
+    void testPageTagIsStableAndQuoted() {
+        String tag = ETags.forPage("doctors", STAMP, PageRequest.of(0, 20), FieldSelection.all());
+        
+        assertEquals(tag, ETags.forPage("doctors", new VersionStamp(3, 42), PageRequest.of(0, 20), FieldSelection.all()));
+        assertTrue(tag.startsWith("\"") && tag.endsWith("\""));
+    }
+    
+    @Test
+    void testPageTagChangesWithStamp() {
+        String tag = ETags.forPage("doctors", STAMP, PageRequest.of(0, 20));
+        
+        // An update keeps the count but writes a new row version
+        assertNotEquals(tag, ETags.forPage("doctors", new VersionStamp(3, 43), PageRequest.of(0, 20)));
+        assertNotEquals(tag, ETags.forPage("doctors", new VersionStamp(4, 42), PageRequest.of(0, 20)));
+    }
+    
+    @Test
+    void testPageTagChangesWithPageAndDiscriminators() {
+        String tag = ETags.forPage("doctor-appointments", STAMP, PageRequest.of(0, 20), 1L, FieldSelection.all());
+        
+        assertNotEquals(tag, ETags.forPage("doctor-appointments", STAMP, PageRequest.of(1, 20), 1L, FieldSelection.all()));
+        assertNotEquals(tag, ETags.forPage("doctor-appointments", STAMP,
+                PageRequest.of(0, 20, Sort.by("appointmentDate")), 1L, FieldSelection.all()));
+        assertNotEquals(tag, ETags.forPage("doctor-appointments", STAMP, PageRequest.of(0, 20), 2L, FieldSelection.all()));
+        assertNotEquals(tag, ETags.forPage("doctor-appointments", STAMP, PageRequest.of(0, 20), 1L,
+                FieldSelection.parse("id")));
+        assertNotEquals(tag, ETags.forPage("appointments", STAMP, PageRequest.of(0, 20), 1L, FieldSelection.all()));
+    }
+    
+    @Test
+    void testEntityTagFollowsUpdatedAt() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 9, 0, 0, 123_456_000);
+        
+        assertEquals("\"doctor-7-1704099600123456\"", ETags.forEntity("doctor", 7L, updatedAt));
+        // Sub-microsecond precision is not kept by the database
+        assertEquals(ETags.forEntity("doctor", 7L, updatedAt), ETags.forEntity("doctor", 7L, updatedAt.plusNanos(999)));
+        assertNotEquals(ETags.forEntity("doctor", 7L, updatedAt), ETags.forEntity("doctor", 7L, updatedAt.plusNanos(1_000)));
+        assertEquals("\"doctor-7-0\"", ETags.forEntity("doctor", 7L, null));
+    }
+}
@@ -0,0 +1,46 @@
+package com.hospital.util;
+
+import com.hospital.dto.DoctorDTO;
+import com.hospital.exception.InvalidFieldSelectionException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FieldSelection
+ */
+class FieldSelectionTest {
+    
+    @Test
+    void testMissingOrBlankParameterSelectsAll() {
+        assertTrue(FieldSelection.parse(null).isAll());
+        assertTrue(FieldSelection.parse(" ").isAll());
+        assertTrue(FieldSelection.parse(" , ,").isAll());
+        assertEquals("*", FieldSelection.parse(null).toString());
+    }
+    
+    @Test
+    void testParsesTrimmedDistinctNamesInOrder() {
+        FieldSelection selection = FieldSelection.parse("lastName, id,,lastName");
+        
+        assertFalse(selection.isAll());
+        assertEquals(List.of("lastName", "id"), List.copyOf(selection.getNames()));
+        assertEquals("lastName,id", selection.toString());
+    }
+    
+    @Test
+    void testValidateAcceptsDtoProperties() {
+        assertDoesNotThrow(() -> FieldSelection.parse("id,firstName,specialization").validate(DoctorDTO.class));
+    }
+    
+    @Test
+    void testValidateRejectsUnknownFields() {
+        InvalidFieldSelectionException exception = assertThrows(InvalidFieldSelectionException.class,
+                () -> FieldSelection.parse("id,salary,class").validate(DoctorDTO.class));
+        
+        assertTrue(exception.getMessage().contains("[salary, class]"));
+        assertTrue(exception.getMessage().contains("specialization"));
+    }
+}
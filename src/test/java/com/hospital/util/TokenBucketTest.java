@@ -0,0 +1,39 @@
+package com.hospital.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TokenBucket
+ */
+class TokenBucketTest {
+    
+    @Test
+    void testBurstUpToCapacityThenRefillRate() {
+        TokenBucket bucket = new TokenBucket(3, 1.0);
+        long now = System.nanoTime();
+        
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(now));
+        }
+        long wait = bucket.tryAcquire(now);
+        assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(900) && wait <= TimeUnit.SECONDS.toNanos(1),
+                "Wait: " + wait);
+        
+        assertEquals(0, bucket.tryAcquire(now + TimeUnit.SECONDS.toNanos(1)));
+        assertTrue(bucket.tryAcquire(now + TimeUnit.SECONDS.toNanos(1)) > 0);
+    }
+    
+    @Test
+    void testIdleBucketDoesNotExceedCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 10.0);
+        long later = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+}